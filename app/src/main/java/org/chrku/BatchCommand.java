@@ -0,0 +1,266 @@
+package org.chrku;
+
+import org.chrku.algorithms.Seeds;
+import org.chrku.grid.Grid;
+import org.chrku.grid.GridStorage;
+import org.chrku.grid.LabeledGrid;
+import org.chrku.io.ImageOptions;
+import org.chrku.io.MazeFile;
+import org.chrku.solvers.BfsSolver;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Generates many mazes in one JVM on a fixed thread pool, so startup and JIT warmup are paid once.
+// Every worker keeps the grids, labels and solvers of the last few maze sizes and clears them for
+// the next job of the same size instead of allocating new ones. The workers already run in
+// parallel, so generators that carve tiles in parallel get one thread.
+@Command(name = "batch", mixinStandardHelpOptions = true,
+        description = "Generates many mazes concurrently and reports the throughput.")
+class BatchCommand implements Callable<Integer> {
+    private enum OutputFormat {
+        none, text, image, binary
+    }
+
+    private static final int CACHED_SIZES = 4;
+
+    private record Job(int number, Main.Algorithm algorithm, int rows, int columns, long seed) {
+    }
+
+    // The grid of one maze size, labelled with --solve and text or image output, and its solver
+    // if solving
+    private record Workspace(Grid grid, BfsSolver solver) {
+    }
+
+    @Option(names = {"-n", "--count"}, description = "Number of mazes to generate with the given algorithm and size")
+    private Integer count;
+
+    @Option(names = {"-m", "--manifest"}, description = "File with one maze per line: algorithm rows columns " +
+            "[seed]. Empty lines and lines starting with # are skipped")
+    private Path manifest;
+
+    @Option(names = {"-a", "--algorithm"}, description = "Maze algorithm for --count. " +
+            "Valid values: ${COMPLETION-CANDIDATES}")
+    private Main.Algorithm algorithm;
+
+    @Option(names = {"-h", "--numRows"}, description = "Number of rows for --count")
+    private Integer numRows;
+
+    @Option(names = {"-w", "--numCols"}, description = "Number of columns for --count")
+    private Integer numCols;
+
+    @Option(names = {"--seed"}, description = "Seed of the first maze, every following maze uses the next seed " +
+            "unless the manifest gives one")
+    private Long seed;
+
+    @Option(names = {"-s", "--solve"}, description = "Solve every maze from the top left corner")
+    private boolean solve;
+
+    @Option(names = {"-o", "--outputFormat"}, description = "Output format of the mazes. " +
+            "Valid values: ${COMPLETION-CANDIDATES}",
+            defaultValue = "none")
+    private OutputFormat outputFormat;
+
+    @Option(names = {"-p", "--path"}, description = "Output directory", defaultValue = ".")
+    private Path outputDirectory;
+
+    @Option(names = {"-l", "--lineWidth"}, description = "Line width for image output", defaultValue = "2")
+    private int lineWidth;
+
+    @Option(names = {"-cs", "--cellSize"}, description = "Cell size for image output", defaultValue = "20")
+    private int cellSize;
+
+    @Option(names = {"--storage"}, description = "Grid storage. Valid values: ${COMPLETION-CANDIDATES}",
+            defaultValue = "packed")
+    private Main.Storage storage;
+
+    @Option(names = {"--threads"}, description = "Number of mazes generated at the same time, " +
+            "defaults to the number of processors")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @Spec
+    private CommandSpec spec;
+
+    private final ThreadLocal<Map<Long, Workspace>> workspaces = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Workspace> eldest) {
+                    return size() > CACHED_SIZES;
+                }
+            });
+
+    @Override
+    public Integer call() {
+        if (threads < 1) {
+            throw new ParameterException(spec.commandLine(), "--threads must be positive");
+        }
+
+        List<Job> jobs;
+        try {
+            jobs = createJobs();
+        } catch (IOException e) {
+            System.out.println("Could not read manifest");
+            e.printStackTrace();
+            return 1;
+        }
+
+        if (outputFormat != OutputFormat.none) {
+            try {
+                Files.createDirectories(outputDirectory);
+            } catch (IOException e) {
+                System.out.println("Could not create output directory");
+                e.printStackTrace();
+                return 1;
+            }
+        }
+
+        long start = System.nanoTime();
+        long cells = 0;
+        int failed = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<>(jobs.size());
+            for (Job job : jobs) {
+                results.add(executor.submit(() -> run(job)));
+            }
+
+            for (int i = 0; i < results.size(); ++i) {
+                try {
+                    cells += results.get(i).get();
+                } catch (ExecutionException e) {
+                    System.out.println("Maze " + jobs.get(i).number() + " failed: " + e.getCause());
+                    ++failed;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int done = jobs.size() - failed;
+        System.out.printf("Generated %d mazes with %d cells in %.3f s: %.1f mazes/s, %.0f cells/s%n",
+                done, cells, seconds, done / seconds, cells / seconds);
+
+        return failed == 0 ? 0 : 1;
+    }
+
+    private List<Job> createJobs() throws IOException {
+        if ((count == null) == (manifest == null)) {
+            throw new ParameterException(spec.commandLine(), "Need either '--count' or '--manifest'");
+        }
+
+        long firstSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        List<Job> jobs = new ArrayList<>();
+
+        if (count != null) {
+            if (algorithm == null || numRows == null || numCols == null) {
+                throw new ParameterException(spec.commandLine(),
+                        "'--count' needs '--algorithm', '--numRows' and '--numCols'");
+            }
+            for (int i = 0; i < count; ++i) {
+                jobs.add(new Job(i, algorithm, numRows, numCols, firstSeed + i));
+            }
+            return jobs;
+        }
+
+        List<String> lines = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); ++i) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split("\\s+");
+            if (fields.length < 3 || fields.length > 4) {
+                throw new ParameterException(spec.commandLine(),
+                        "Manifest line " + (i + 1) + " is not 'algorithm rows columns [seed]'");
+            }
+            try {
+                jobs.add(new Job(jobs.size(), Main.Algorithm.valueOf(fields[0]),
+                        Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                        fields.length == 4 ? Long.parseLong(fields[3]) : firstSeed + jobs.size()));
+            } catch (IllegalArgumentException e) {
+                throw new ParameterException(spec.commandLine(),
+                        "Manifest line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return jobs;
+    }
+
+    // Returns the number of cells of the maze
+    private long run(Job job) throws IOException {
+        Workspace workspace = reusableWorkspace(job.rows(), job.columns());
+        Grid grid = workspace.grid();
+
+        Main.createGenerator(job.algorithm(), 1).generateIndexed(grid, Seeds.generator(job.seed()));
+
+        BfsSolver solver = workspace.solver();
+        if (solver != null) {
+            solver.solve();
+            if (grid instanceof LabeledGrid labeledGrid) {
+                labeledGrid.setLabels(solver.getDistanceArray());
+                labeledGrid.setPathIndices(solver.getPathIndicesTo(job.rows() - 1, job.columns() - 1));
+            }
+        }
+
+        String name = "maze-" + job.number();
+        switch (outputFormat) {
+            case none -> {
+            }
+            case text -> {
+                try (Writer writer = Files.newBufferedWriter(outputDirectory.resolve(name + ".txt"),
+                        StandardCharsets.US_ASCII)) {
+                    grid.writeText(writer);
+                    writer.write("\n");
+                }
+            }
+            case image -> grid.writeImage(outputDirectory.resolve(name + ".png"), cellSize, lineWidth,
+                    ImageOptions.DEFAULT);
+            case binary -> MazeFile.write(outputDirectory.resolve(name + ".maze"), grid, job.seed(),
+                    job.algorithm().name(), solver != null ? solver.getDistanceArray() : null, solve ? 0 : -1);
+        }
+
+        return (long) job.rows() * job.columns();
+    }
+
+    private Workspace reusableWorkspace(int rows, int columns) {
+        Map<Long, Workspace> cached = workspaces.get();
+        long key = ((long) rows << 32) | columns;
+
+        Workspace workspace = cached.get(key);
+        if (workspace != null) {
+            workspace.grid().getStorage().clear();
+            return workspace;
+        }
+
+        GridStorage gridStorage = Main.createStorage(storage, rows, columns);
+        boolean labeled = solve && (outputFormat == OutputFormat.text || outputFormat == OutputFormat.image);
+        Grid grid = labeled ? new LabeledGrid(gridStorage, Color.RED, Color.YELLOW) : new Grid(gridStorage);
+        workspace = new Workspace(grid, solve ? new BfsSolver(grid, 0, 0) : null);
+        cached.put(key, workspace);
+        return workspace;
+    }
+}
@@ -0,0 +1,628 @@
+package org.chrku;
+
+import jdk.jfr.Recording;
+import org.chrku.algorithms.*;
+import org.chrku.grid.ConcurrentGridStorage;
+import org.chrku.grid.Grid;
+import org.chrku.grid.GridStorage;
+import org.chrku.grid.LabeledGrid;
+import org.chrku.grid.ObjectGridStorage;
+import org.chrku.grid.PackedGridStorage;
+import org.chrku.metrics.Metrics;
+import org.chrku.solvers.AStarSolver;
+import org.chrku.solvers.BfsSolver;
+import org.chrku.solvers.BidirectionalBfsSolver;
+import org.chrku.solvers.DijkstraSolver;
+import org.chrku.solvers.MazeAnalytics;
+import org.chrku.solvers.PathFinder;
+import org.chrku.solvers.Solver;
+import org.chrku.io.ImageOptions;
+import org.chrku.io.ImageRowWriter;
+import org.chrku.io.MazeFile;
+import org.chrku.io.TextRowWriter;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.ParseResult;
+import picocli.CommandLine.Spec;
+
+import java.awt.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+@Command(name = "generate_maze", mixinStandardHelpOptions = true,
+        subcommands = {BatchCommand.class, ServeCommand.class},
+        description = "Generates maze and outputs it.")
+class Main implements Callable<Integer> {
+    private enum OutputFormat {
+        image, text, binary
+    }
+
+    enum Algorithm {
+        binary_tree, sidewinder, aldous_broder, aldous_broder_wilson, wilson,
+        hunt_and_kill, recursive_backtracker, eller, kruskal, kruskal_tiled,
+        growing_tree_newest, growing_tree_random, growing_tree_oldest, growing_tree_mixed, prim
+    }
+
+    private enum LabelColor {
+        red, green, blue
+    }
+
+    enum Storage {
+        object, packed, concurrent
+    }
+
+    private enum MetricsFormat {
+        none, json, jfr
+    }
+
+    private enum SolverType {
+        dijkstra, bfs, bidirectional, astar;
+
+        // Only finds the path between start and end, without the distances to all cells
+        boolean pointToPoint() {
+            return this == bidirectional || this == astar;
+        }
+    }
+
+    @Option(names = {"-a", "--algorithm"}, description = "Maze algorithm to choose from. " +
+            "Valid values: ${COMPLETION-CANDIDATES}")
+    private Algorithm algorithm;
+
+    @Option(names = {"-l", "--lineWidth"}, description = "Line width for image output", defaultValue = "2")
+    private int lineWidth = 2;
+
+    @Option(names = {"-cs", "--cellSize"}, description = "Cell size for image output", defaultValue = "20")
+    private int cellSize = 20;
+
+    @Option(names = {"-s", "--solve"}, description = "Shows shortest paths from arbitrary starting point")
+    private boolean solve;
+
+    @Option(names = {"--solver"}, description = "Solver used for shortest paths, bidirectional and astar " +
+            "need --solveEnd and only search towards the end. Valid values: ${COMPLETION-CANDIDATES}",
+            defaultValue = "bfs")
+    private SolverType solverType;
+
+    @Option(names = {"-color", "--solveColor"}, description = "Which color to use for visualizing shortest paths",
+            defaultValue = "red")
+    private LabelColor color;
+
+    @Option(names = {"-sr", "--startRow"}, description = "Starting row to use for shortest path visualization," +
+            " -1 for random", defaultValue = "-1")
+    private int startRow;
+
+    @Option(names = {"-sc", "--startColumn"}, description = "Starting column to use for shortest path visualization," +
+            " -1 for random", defaultValue = "-1")
+    private int startColumn;
+
+    @Option(names = {"-se", "--solveEnd"}, description = "Add an endpoint to the shortest path visualization",
+            defaultValue = "false")
+    private boolean solveEnd;
+
+    @Option(names = {"--longestPath"}, description = "With --solve, show the distances from one end of the " +
+            "longest path and highlight the path. Cannot be combined with the start, end and solver options")
+    private boolean longestPath;
+
+    @Option(names = {"--stats"}, description = "Print the diameter, dead ends and branching of the maze " +
+            "to standard error")
+    private boolean stats;
+
+    @Option(names = {"-er", "--endRow"}, description = "Ending row to use for shortest path visualization," +
+            " -1 for random", defaultValue = "-1")
+    private int endRow;
+
+    @Option(names = {"-ec", "--endColumn"}, description = "Ending column to use for shortest path visualization," +
+            " -1 for random", defaultValue = "-1")
+    private int endColumn;
+
+    @Option(names = {"-h", "--numRows"}, description = "Number of rows for maze")
+    private Integer numRows;
+
+    @Option(names = {"-w", "--numCols"}, description = "Number of columns for maze")
+    private Integer numCols;
+
+    @Option(names = {"-o", "--outputFormat"}, description = "Output format of maze. " +
+            "Valid values: ${COMPLETION-CANDIDATES}",
+            defaultValue = "image")
+    private OutputFormat outputFormat;
+
+    @Option(names = {"--storage"}, description = "Grid storage, packed uses two bits per cell and concurrent " +
+            "is packed with atomic updates. " +
+            "Valid values: ${COMPLETION-CANDIDATES}",
+            defaultValue = "object")
+    private Storage storage;
+
+    @Option(names = {"--threads"}, description = "Generate the maze in parallel tiles with the given " +
+            "number of threads", defaultValue = "1")
+    private int threads;
+
+    @Option(names = {"--renderThreads"}, description = "Number of threads rendering and compressing image " +
+            "output, defaults to the number of processors")
+    private int renderThreads = Runtime.getRuntime().availableProcessors();
+
+    @Option(names = {"--compressionLevel"}, description = "PNG compression level from 0 to 9, -1 for default",
+            defaultValue = "-1")
+    private int compressionLevel;
+
+    @Option(names = {"--indexedColor"}, description = "Write palette images when the maze uses few colours")
+    private boolean indexedColor;
+
+    @Option(names = {"--stream"}, description = "Generate row by row with Eller's algorithm and write the " +
+            "output without keeping the maze in memory")
+    private boolean stream;
+
+    @Option(names = {"--seed"}, description = "Random seed, the same seed gives the same maze for the same " +
+            "algorithm and size. --threads above 1 generates tiled mazes, which differ from single-threaded " +
+            "ones but not between thread counts")
+    private Long seed;
+
+    @Option(names = {"-p", "--path"}, description = "Output path", defaultValue = "")
+    private Path outputPath;
+
+    @Option(names = {"-i", "--input"}, description = "Load a maze saved with the binary output format " +
+            "instead of generating one")
+    private Path inputPath;
+
+    @Option(names = {"--metrics"}, description = "Time the phases and count carved cells, walk steps, queue " +
+            "pushes and pixels. json is written to --metricsPath or standard error, jfr records events to " +
+            "--metricsPath or to recordings started outside. Valid values: ${COMPLETION-CANDIDATES}",
+            defaultValue = "none")
+    private MetricsFormat metricsFormat;
+
+    @Option(names = {"--metricsPath"}, description = "Output path of the metrics")
+    private Path metricsPath;
+
+    @Spec
+    private CommandSpec spec;
+
+    private RandomGenerator rng;
+    private MazeFile input;
+    private int[] distances;
+    private int distanceOrigin = -1;
+
+    // this example implements Callable, so parsing, error handling and handling user
+    // requests for usage help or version help can be done with one line of code.
+    public static void main(String... args) {
+        int exitCode = new CommandLine(new Main()).execute(args);
+        System.exit(exitCode);
+    }
+
+    @Override
+    public Integer call() {
+        Recording recording = startMetrics();
+        int result;
+        boolean exported;
+        // The metrics and a started recording are written out even if run fails
+        try {
+            result = run();
+        } finally {
+            exported = exportMetrics(recording);
+        }
+        return exported ? result : 1;
+    }
+
+    private int run() {
+        if (inputPath != null) {
+            Metrics.Phase phase = Metrics.phase("load");
+            try {
+                input = MazeFile.read(inputPath);
+            } catch (IOException e) {
+                System.out.println("Could not read maze from given path");
+                e.printStackTrace();
+                return 1;
+            } finally {
+                phase.close();
+            }
+            numRows = input.grid().rows();
+            numCols = input.grid().columns();
+            seed = input.seed();
+        } else if (algorithm == null || numRows == null || numCols == null) {
+            throw new ParameterException(spec.commandLine(),
+                    "Missing required options: '--algorithm', '--numRows' and '--numCols', or '--input'");
+        }
+
+        if (longestPath) {
+            if (!solve) {
+                throw new ParameterException(spec.commandLine(), "'--longestPath' needs '--solve'");
+            }
+            // The longest path picks its own ends and is found without a solver
+            ParseResult parseResult = spec.commandLine().getParseResult();
+            for (String option : new String[]{"--startRow", "--startColumn", "--endRow", "--endColumn",
+                    "--solveEnd", "--solver"}) {
+                if (parseResult.hasMatchedOption(option)) {
+                    throw new ParameterException(spec.commandLine(),
+                            "'--longestPath' cannot be combined with '" + option + "'");
+                }
+            }
+        }
+
+        if (solve && !longestPath && solverType.pointToPoint() && !solveEnd) {
+            throw new ParameterException(spec.commandLine(),
+                    "'--solver " + solverType + "' needs '--solveEnd'");
+        }
+
+        if (seed == null) {
+            seed = ThreadLocalRandom.current().nextLong();
+        }
+        rng = Seeds.generator(seed);
+
+        if (stream) {
+            Metrics.Phase phase = Metrics.phase("stream");
+            try {
+                return streamMaze();
+            } finally {
+                phase.close();
+            }
+        }
+
+        // Create grid
+        Grid grid = createGrid();
+
+        // Output the grid to the chosen option
+        if (stats) {
+            Metrics.Phase phase = Metrics.phase("stats");
+            try {
+                printStats(grid);
+            } finally {
+                phase.close();
+            }
+        }
+
+        Metrics.Phase phase = Metrics.phase("output");
+        try {
+            outputGrid(grid);
+        } finally {
+            phase.close();
+        }
+        return 0;
+    }
+
+    // Without a path the JFR events go to recordings started outside, e.g. with -XX:StartFlightRecording
+    private Recording startMetrics() {
+        if (metricsFormat == MetricsFormat.none) {
+            return null;
+        }
+
+        Metrics.enable();
+        if (metricsFormat == MetricsFormat.jfr) {
+            if (metricsPath != null) {
+                return Metrics.startRecording();
+            }
+            Metrics.registerCounterEvent();
+        }
+        return null;
+    }
+
+    private boolean exportMetrics(Recording recording) {
+        try {
+            switch (metricsFormat) {
+                case none -> {
+                }
+                case json -> {
+                    if (metricsPath == null) {
+                        System.err.println(Metrics.toJson());
+                    } else {
+                        Files.writeString(metricsPath, Metrics.toJson() + System.lineSeparator());
+                    }
+                }
+                case jfr -> {
+                    if (recording != null) {
+                        try (recording) {
+                            recording.stop();
+                            recording.dump(metricsPath);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write metrics");
+            e.printStackTrace();
+            return false;
+        }
+        return true;
+    }
+
+    private int streamMaze() {
+        if (algorithm != Algorithm.eller || solve || input != null) {
+            System.out.println("Streaming is only supported for the eller algorithm without solving");
+            return 1;
+        }
+
+        Eller eller = new Eller();
+        try {
+            switch (outputFormat) {
+                case image -> {
+                    if (outputPath.toString().isEmpty()) {
+                        System.out.println("Need output path for image");
+                        return 1;
+                    }
+                    try (FileChannel channel = FileChannel.open(outputPath, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                         ImageRowWriter writer = new ImageRowWriter(channel, numRows, numCols, cellSize, lineWidth,
+                                 null, imageOptions(), indexedColor ? new int[]{0xFFFFFF, 0x000000} : null)) {
+                        eller.generate(numRows, numCols, writer, rng);
+                    }
+                }
+                case text -> {
+                    Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII));
+                    TextRowWriter writer = new TextRowWriter(out, numCols);
+                    eller.generate(numRows, numCols, writer, rng);
+                    out.write("\n");
+                    out.flush();
+                }
+                case binary -> {
+                    System.out.println("Streaming does not support binary output");
+                    return 1;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write to given path");
+            e.printStackTrace();
+            return 1;
+        }
+        return 0;
+    }
+
+    private ImageOptions imageOptions() {
+        return new ImageOptions(renderThreads, compressionLevel, indexedColor);
+    }
+
+    private void outputGrid(Grid grid) {
+        switch (outputFormat) {
+            case image -> {
+                if (outputPath.toString().isEmpty()) {
+                    System.out.println("Need output path for image");
+                } else {
+                    try {
+                        grid.writeImage(outputPath, cellSize, lineWidth, imageOptions());
+                    } catch (IOException e) {
+                        System.out.println("Could not write to given path");
+                        e.printStackTrace();
+                    }
+                }
+            }
+            case text -> {
+                try {
+                    Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII));
+                    grid.writeText(out);
+                    // Like the streamed output: the maze lines end in \n, whatever the platform
+                    out.write("\n");
+                    out.flush();
+                } catch (IOException e) {
+                    System.out.println("Could not write maze");
+                    e.printStackTrace();
+                }
+            }
+            case binary -> {
+                if (outputPath.toString().isEmpty()) {
+                    System.out.println("Need output path for binary output");
+                } else {
+                    try {
+                        String name = input != null ? input.algorithm() : algorithm.name();
+                        MazeFile.write(outputPath, grid, seed, name, distances, distanceOrigin);
+                    } catch (IOException e) {
+                        System.out.println("Could not write to given path");
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    private Grid createGrid() {
+        Grid grid = null;
+
+        if (solve) {
+            grid = createShortestPathGrid(grid);
+        } else {
+            grid = new Grid(createStorage());
+            generateMaze(grid);
+        }
+        return grid;
+    }
+
+    private GridStorage createStorage() {
+        if (input != null) {
+            return input.grid().getStorage();
+        }
+
+        return createStorage(storage, numRows, numCols);
+    }
+
+    static GridStorage createStorage(Storage storage, int rows, int columns) {
+        return switch (storage) {
+            case object -> new ObjectGridStorage(rows, columns);
+            case packed -> new PackedGridStorage(rows, columns);
+            case concurrent -> new ConcurrentGridStorage(rows, columns);
+        };
+    }
+
+    private Grid createShortestPathGrid(Grid grid) {
+        Color baseColor = Color.RED;
+
+        switch (color) {
+            case red -> baseColor = Color.RED;
+            case green -> baseColor = Color.GREEN;
+            case blue -> baseColor = Color.BLUE;
+        }
+
+        LabeledGrid labeledGrid = new LabeledGrid(createStorage(), baseColor, Color.YELLOW);
+
+        // Generate first, so a seed gives the same maze with and without solving
+        generateMaze(labeledGrid);
+
+        Metrics.Phase phase = Metrics.phase("solve");
+        try {
+            solveMaze(labeledGrid);
+        } finally {
+            phase.close();
+        }
+
+        grid = labeledGrid;
+
+        return grid;
+    }
+
+    private void solveMaze(LabeledGrid labeledGrid) {
+        if (longestPath) {
+            MazeAnalytics analytics = new MazeAnalytics(labeledGrid);
+            MazeAnalytics.Diameter diameter = analytics.diameter();
+            int[] distancesFromEnd = analytics.distancesFrom(diameter.from());
+            labeledGrid.setLabels(distancesFromEnd);
+            labeledGrid.setPathIndices(analytics.pathBetween(diameter.from(), diameter.to()));
+            if (outputFormat == OutputFormat.binary) {
+                distances = distancesFromEnd;
+                distanceOrigin = diameter.from();
+            }
+            return;
+        }
+
+        if (startRow == -1) {
+            startRow = rng.nextInt(numRows);
+        }
+        if (startColumn == -1) {
+            startColumn = rng.nextInt(numCols);
+        }
+        if (endRow == -1) {
+            endRow = rng.nextInt(numRows);
+        }
+        if (endColumn == -1) {
+            endColumn = rng.nextInt(numCols);
+        }
+
+        if (solverType.pointToPoint()) {
+            PathFinder finder = solverType == SolverType.astar
+                    ? new AStarSolver(labeledGrid)
+                    : new BidirectionalBfsSolver(labeledGrid);
+            int start = labeledGrid.index(startRow, startColumn);
+            int[] path = finder.findPath(start, labeledGrid.index(endRow, endColumn));
+
+            // The finder only visits some cells, so every cell is labelled by a search from the start
+            int[] distancesFromStart = new MazeAnalytics(labeledGrid).distancesFrom(start);
+            labeledGrid.setLabels(distancesFromStart);
+            labeledGrid.setPathIndices(path);
+            if (outputFormat == OutputFormat.binary) {
+                distances = distancesFromStart;
+                distanceOrigin = start;
+            }
+            return;
+        }
+
+        Solver solver = switch (solverType) {
+            case dijkstra -> new DijkstraSolver(labeledGrid, startRow, startColumn);
+            default -> new BfsSolver(labeledGrid, startRow, startColumn);
+        };
+        solver.solve();
+        labeledGrid.setLabels(solver.getDistances());
+        if (outputFormat == OutputFormat.binary) {
+            distances = distanceArray(solver);
+            distanceOrigin = labeledGrid.index(startRow, startColumn);
+        }
+        if (solveEnd) {
+            labeledGrid.setPath(solver.getPathTo(endRow, endColumn));
+        }
+    }
+
+    private void printStats(Grid grid) {
+        MazeAnalytics analytics = new MazeAnalytics(grid);
+        MazeAnalytics.Diameter diameter = analytics.diameter();
+        MazeAnalytics.Branching branching = analytics.branching();
+
+        System.err.printf("Diameter %d from (%d, %d) to (%d, %d)%n", diameter.length(),
+                grid.rowOf(diameter.from()), grid.columnOf(diameter.from()),
+                grid.rowOf(diameter.to()), grid.columnOf(diameter.to()));
+        System.err.printf("Dead ends %d, corridors %d, forks %d, crossroads %d, perfect %b%n",
+                branching.deadEnds(), branching.corridors(), branching.forks(), branching.crossroads(),
+                analytics.isPerfect());
+    }
+
+    // Distance per cell id, -1 for unreachable cells
+    private int[] distanceArray(Solver solver) {
+        if (solver instanceof BfsSolver bfs) {
+            return bfs.getDistanceArray();
+        }
+
+        int[] result = new int[numRows * numCols];
+        List<List<Double>> rows = solver.getDistances();
+        for (int i = 0; i < numRows; ++i) {
+            for (int j = 0; j < numCols; ++j) {
+                double distance = rows.get(i).get(j);
+                result[i * numCols + j] = Double.isInfinite(distance) ? -1 : (int) distance;
+            }
+        }
+        return result;
+    }
+
+    private void generateMaze(Grid grid) {
+        if (input != null) {
+            return;
+        }
+
+        MazeGenerator generator = createGenerator();
+
+        if (threads > 1) {
+            // The tiles already run in parallel, so generators inside them get one thread
+            generator = new ParallelTiledGenerator(() -> createGenerator(algorithm, 1), threads);
+        }
+
+        Metrics.Phase phase = Metrics.phase("generate");
+        try {
+            generator.generateIndexed(grid, rng);
+        } finally {
+            phase.close();
+        }
+        if (Metrics.isEnabled()) {
+            Metrics.add(Metrics.Counter.CELLS_CARVED, grid.passages());
+        }
+    }
+
+    private MazeGenerator createGenerator() {
+        return createGenerator(algorithm);
+    }
+
+    static MazeGenerator createGenerator(Algorithm algorithm) {
+        return createGenerator(algorithm, Runtime.getRuntime().availableProcessors());
+    }
+
+    // threads is used by generators that carve tiles in parallel, the others ignore it
+    static MazeGenerator createGenerator(Algorithm algorithm, int threads) {
+        MazeGenerator generator = null;
+
+        switch (algorithm) {
+            case binary_tree -> generator = new BinaryTree();
+            case sidewinder -> generator = new Sidewinder();
+            case aldous_broder -> generator = new AldousBroder();
+            case aldous_broder_wilson -> generator = AldousBroder.hybrid();
+            case wilson ->  generator = new Wilson();
+            case hunt_and_kill -> generator = new HuntAndKill();
+            case recursive_backtracker -> generator = new RecursiveBacktracker();
+            case eller -> generator = new Eller();
+            case kruskal -> generator = new Kruskal();
+            case kruskal_tiled -> generator = Kruskal.tiled(threads);
+            case growing_tree_newest -> generator = new GrowingTree(GrowingTree.Selection.NEWEST);
+            case growing_tree_random -> generator = new GrowingTree(GrowingTree.Selection.RANDOM);
+            case growing_tree_oldest -> generator = new GrowingTree(GrowingTree.Selection.OLDEST);
+            case growing_tree_mixed -> generator = new GrowingTree(GrowingTree.Selection.mixed(0.5));
+            case prim -> generator = new Prim();
+            default -> {
+                System.out.println("Unsupported algorithm");
+                System.exit(1);
+            }
+        }
+
+        return generator;
+    }
+}
\ No newline at end of file
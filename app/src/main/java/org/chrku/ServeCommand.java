@@ -0,0 +1,428 @@
+package org.chrku;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.chrku.algorithms.Seeds;
+import org.chrku.cache.LruCache;
+import org.chrku.grid.Grid;
+import org.chrku.grid.LabeledGrid;
+import org.chrku.grid.PackedGridStorage;
+import org.chrku.io.ImageOptions;
+import org.chrku.io.MazeFile;
+import org.chrku.metrics.Metrics;
+import org.chrku.solvers.BfsSolver;
+import org.chrku.solvers.MazeAnalytics;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Serves mazes over HTTP from one JVM:
+//
+//   GET /maze?algorithm=wilson&rows=20&columns=30&seed=7&format=image
+//
+// with the optional parameters cellSize, lineWidth, solve, solveEnd, longestPath, startRow,
+// startColumn, endRow and endColumn named like the options of generate_maze. Solving starts in
+// the top left and ends in the bottom right corner unless given otherwise. The same seed gives
+// the same maze as generate_maze --seed. Mazes above --maxCells cells and images above
+// --maxPixels pixels are refused with 400.
+//
+// Generated grids and rendered responses of requests with a seed share one LRU cache bounded
+// by their size in bytes, so popular mazes are generated and rendered once. Requests without a
+// seed get a random one, which is returned in the X-Maze-Seed header, and bypass the cache.
+// GET /metrics returns the cache statistics and the metrics as JSON.
+@Command(name = "serve", mixinStandardHelpOptions = true,
+        description = "Serves mazes over HTTP.")
+class ServeCommand implements Callable<Integer> {
+    private enum OutputFormat {
+        image, text, binary
+    }
+
+    // The cache holds generated grids by GridKey and rendered responses by MazeRequest
+    private sealed interface CacheKey permits GridKey, MazeRequest {
+    }
+
+    private sealed interface CacheValue permits CachedGrid, CachedResponse {
+        long weight();
+    }
+
+    private record GridKey(Main.Algorithm algorithm, int rows, int columns, long seed) implements CacheKey {
+    }
+
+    private record MazeRequest(GridKey grid, OutputFormat format, int cellSize, int lineWidth,
+                               boolean solve, boolean solveEnd, boolean longestPath,
+                               int startRow, int startColumn, int endRow, int endColumn) implements CacheKey {
+    }
+
+    private record CachedGrid(Grid grid) implements CacheValue {
+        // Packed storage, two bits per cell in longs
+        @Override
+        public long weight() {
+            return ((2L * grid.size() + 63) >>> 6) * Long.BYTES + ENTRY_OVERHEAD;
+        }
+    }
+
+    private record CachedResponse(byte[] body) implements CacheValue {
+        @Override
+        public long weight() {
+            return body.length + ENTRY_OVERHEAD;
+        }
+    }
+
+    // Rough size of the objects around the arrays of a cached value
+    private static final long ENTRY_OVERHEAD = 256;
+
+    @Option(names = {"--port"}, description = "Port to listen on", defaultValue = "8080")
+    private int port;
+
+    @Option(names = {"--threads"}, description = "Number of requests handled at the same time, " +
+            "defaults to the number of processors")
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @Option(names = {"--cacheBytes"}, description = "Memory used for cached mazes and responses",
+            defaultValue = "268435456")
+    private long cacheBytes;
+
+    @Option(names = {"--maxCells"}, description = "Largest maze served", defaultValue = "4194304")
+    private long maxCells;
+
+    @Option(names = {"--maxPixels"}, description = "Largest image served, in pixels",
+            defaultValue = "268435456")
+    private long maxPixels;
+
+    @Option(names = {"--metrics"}, description = "Collect metrics for /metrics")
+    private boolean metrics;
+
+    @Spec
+    private CommandSpec spec;
+
+    private LruCache<CacheKey, CacheValue> cache;
+
+    @Override
+    public Integer call() throws IOException {
+        if (threads < 1) {
+            throw new ParameterException(spec.commandLine(), "--threads must be positive");
+        }
+        if (cacheBytes < 0) {
+            throw new ParameterException(spec.commandLine(), "--cacheBytes must not be negative");
+        }
+        if (maxPixels < 1 || maxPixels > Integer.MAX_VALUE) {
+            throw new ParameterException(spec.commandLine(), "--maxPixels must be positive and at most " +
+                    Integer.MAX_VALUE);
+        }
+
+        cache = new LruCache<>(cacheBytes, CacheValue::weight);
+        if (metrics) {
+            Metrics.enable();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/maze", this::handleMaze);
+        server.createContext("/metrics", this::handleMetrics);
+        server.setExecutor(executor);
+        server.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            executor.shutdownNow();
+        }));
+        System.out.println("Serving mazes on port " + server.getAddress().getPort());
+
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    private void handleMaze(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!isGet(exchange)) {
+                return;
+            }
+
+            MazeRequest request;
+            boolean randomSeed;
+            try {
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                randomSeed = !query.containsKey("seed");
+                request = parseRequest(query);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, "text/plain; charset=utf-8",
+                        (e.getMessage() + "\n").getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            boolean[] rendered = {randomSeed};
+            byte[] body;
+            try {
+                body = randomSeed ? render(request, false) : ((CachedResponse) cache.get(request, ignored -> {
+                    rendered[0] = true;
+                    return new CachedResponse(render(request, true));
+                })).body();
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+                send(exchange, 500, "text/plain; charset=utf-8",
+                        "Could not generate maze\n".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            exchange.getResponseHeaders().set("X-Maze-Seed", Long.toString(request.grid().seed()));
+            exchange.getResponseHeaders().set("X-Cache", rendered[0] ? "miss" : "hit");
+            send(exchange, 200, contentType(request.format()), body);
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!isGet(exchange)) {
+                return;
+            }
+
+            String json = "{\"cache\":{\"entries\":" + cache.size() +
+                    ",\"bytes\":" + cache.weight() +
+                    ",\"capacity\":" + cache.capacity() +
+                    ",\"hits\":" + cache.hits() +
+                    ",\"misses\":" + cache.misses() +
+                    ",\"evictions\":" + cache.evictions() +
+                    "},\"metrics\":" + Metrics.toJson() + "}\n";
+            send(exchange, 200, "application/json", json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // Answers anything but GET and HEAD with 405
+    private static boolean isGet(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (method.equals("GET") || method.equals("HEAD")) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(405, -1);
+        return false;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseHeaders().set("Content-Length", Integer.toString(body.length));
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String contentType(OutputFormat format) {
+        return switch (format) {
+            case image -> "image/png";
+            case text -> "text/plain; charset=us-ascii";
+            case binary -> "application/octet-stream";
+        };
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals == -1 ? parameter : parameter.substring(0, equals);
+            String value = equals == -1 ? "" : parameter.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private MazeRequest parseRequest(Map<String, String> query) {
+        String algorithmName = query.get("algorithm");
+        if (algorithmName == null) {
+            throw new IllegalArgumentException("Missing parameter 'algorithm'");
+        }
+        Main.Algorithm algorithm;
+        try {
+            algorithm = Main.Algorithm.valueOf(algorithmName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown algorithm '" + algorithmName + "'");
+        }
+
+        int rows = intParameter(query, "rows", null);
+        int columns = intParameter(query, "columns", null);
+        if (rows < 1 || columns < 1 || (long) rows * columns > maxCells) {
+            throw new IllegalArgumentException("rows and columns must be positive with at most " +
+                    maxCells + " cells");
+        }
+
+        long seed;
+        try {
+            seed = query.containsKey("seed") ? Long.parseLong(query.get("seed"))
+                    : ThreadLocalRandom.current().nextLong();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid seed '" + query.get("seed") + "'");
+        }
+
+        OutputFormat format;
+        try {
+            format = OutputFormat.valueOf(query.getOrDefault("format", "image"));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown format '" + query.get("format") + "'");
+        }
+
+        int cellSize = intParameter(query, "cellSize", 20);
+        int lineWidth = intParameter(query, "lineWidth", 2);
+        if (cellSize < 1 || lineWidth < 0) {
+            throw new IllegalArgumentException("cellSize must be positive and lineWidth not negative");
+        }
+        // Same size as BandRenderer.imageWidth and imageHeight, without overflowing: both sides are
+        // at most maxPixels before they are multiplied
+        long width = (long) columns * ((long) cellSize + lineWidth) + lineWidth;
+        long height = (long) rows * ((long) cellSize + lineWidth) + lineWidth;
+        if (format == OutputFormat.image && (width > maxPixels || height > maxPixels || width * height > maxPixels)) {
+            throw new IllegalArgumentException("The image must have at most " + maxPixels + " pixels");
+        }
+
+        int startRow = intParameter(query, "startRow", 0);
+        int startColumn = intParameter(query, "startColumn", 0);
+        int endRow = intParameter(query, "endRow", rows - 1);
+        int endColumn = intParameter(query, "endColumn", columns - 1);
+        if (startRow < 0 || startRow >= rows || endRow < 0 || endRow >= rows
+                || startColumn < 0 || startColumn >= columns || endColumn < 0 || endColumn >= columns) {
+            throw new IllegalArgumentException("Start and end must lie in the maze");
+        }
+
+        // Settings that do not change the response are normalised, so they share a cache entry
+        boolean solve = booleanParameter(query, "solve");
+        boolean longestPath = solve && booleanParameter(query, "longestPath");
+        boolean solveEnd = solve && !longestPath && booleanParameter(query, "solveEnd");
+        if (!solve || longestPath) {
+            startRow = startColumn = endRow = endColumn = 0;
+        } else if (!solveEnd) {
+            endRow = endColumn = 0;
+        }
+        if (format != OutputFormat.image) {
+            cellSize = lineWidth = 0;
+        }
+
+        return new MazeRequest(new GridKey(algorithm, rows, columns, seed), format, cellSize, lineWidth,
+                solve, solveEnd, longestPath, startRow, startColumn, endRow, endColumn);
+    }
+
+    private static int intParameter(Map<String, String> query, String name, Integer defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("Missing parameter '" + name + "'");
+            }
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + " '" + value + "'");
+        }
+    }
+
+    // Present without a value or with true
+    private static boolean booleanParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        return value != null && (value.isEmpty() || value.equals("true"));
+    }
+
+    private Grid grid(GridKey key) {
+        Grid grid = new Grid(new PackedGridStorage(key.rows(), key.columns()));
+        Metrics.Phase phase = Metrics.phase("generate");
+        try {
+            Main.createGenerator(key.algorithm()).generateIndexed(grid, Seeds.generator(key.seed()));
+        } finally {
+            phase.close();
+        }
+        if (Metrics.isEnabled()) {
+            Metrics.add(Metrics.Counter.CELLS_CARVED, grid.passages());
+        }
+        return grid;
+    }
+
+    private byte[] render(MazeRequest request, boolean cacheGrid) throws IOException {
+        GridKey key = request.grid();
+        Grid grid = cacheGrid ? ((CachedGrid) cache.get(key, ignored -> new CachedGrid(grid(key)))).grid() : grid(key);
+
+        int[] distances = null;
+        int distanceOrigin = -1;
+        if (request.solve()) {
+            // The labels live in the labelled grid, the shared storage is only read
+            LabeledGrid labeledGrid = new LabeledGrid(grid.getStorage(), Color.RED, Color.YELLOW);
+            Metrics.Phase phase = Metrics.phase("solve");
+            try {
+                if (request.longestPath()) {
+                    MazeAnalytics analytics = new MazeAnalytics(labeledGrid);
+                    MazeAnalytics.Diameter diameter = analytics.diameter();
+                    distances = analytics.distancesFrom(diameter.from());
+                    distanceOrigin = diameter.from();
+                    labeledGrid.setPathIndices(analytics.pathBetween(diameter.from(), diameter.to()));
+                } else {
+                    BfsSolver solver = new BfsSolver(labeledGrid, request.startRow(), request.startColumn());
+                    solver.solve();
+                    distances = solver.getDistanceArray();
+                    distanceOrigin = labeledGrid.index(request.startRow(), request.startColumn());
+                    if (request.solveEnd()) {
+                        labeledGrid.setPathIndices(solver.getPathIndicesTo(request.endRow(), request.endColumn()));
+                    }
+                }
+                labeledGrid.setLabels(distances);
+            } finally {
+                phase.close();
+            }
+            grid = labeledGrid;
+        }
+
+        Metrics.Phase phase = Metrics.phase("render");
+        try {
+            switch (request.format()) {
+                case text -> {
+                    return (grid + "\n").getBytes(StandardCharsets.US_ASCII);
+                }
+                case image -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    try (WritableByteChannel channel = Channels.newChannel(out)) {
+                        grid.writeImage(channel, request.cellSize(), request.lineWidth(), ImageOptions.DEFAULT);
+                    }
+                    return out.toByteArray();
+                }
+                default -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    try (WritableByteChannel channel = Channels.newChannel(out)) {
+                        MazeFile.write(channel, grid, key.seed(), key.algorithm().name(),
+                                distances, distanceOrigin);
+                    }
+                    return out.toByteArray();
+                }
+            }
+        } finally {
+            phase.close();
+        }
+    }
+}
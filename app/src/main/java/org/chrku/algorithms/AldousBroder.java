@@ -0,0 +1,96 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+import org.chrku.metrics.Metrics;
+
+import java.util.random.RandomGenerator;
+
+// The random walk tracks its row and column instead of dividing the cell id, looks up
+// moves in offset tables and takes its directions two bits at a time from one random long,
+// rejecting directions that leave the grid. First visits are checked in a bitmap.
+//
+// Aldous-Broder finds new cells quickly at the start but spends most of its time looking for
+// the last few. With a Wilson threshold the walk stops once that fraction of cells is visited
+// and Wilson's algorithm, which is fastest when the tree is large, adds the rest.
+public class AldousBroder implements MazeGenerator {
+    public static final double DEFAULT_WILSON_THRESHOLD = 0.5;
+
+    // North, south, west, east
+    private static final int[] ROW_OFFSETS = {-1, 1, 0, 0};
+    private static final int[] COLUMN_OFFSETS = {0, 0, -1, 1};
+
+    private final double wilsonThreshold;
+
+    public AldousBroder() {
+        this(1.0);
+    }
+
+    // Switches to Wilson's algorithm once the given fraction of cells is visited, 1 never switches
+    public AldousBroder(double wilsonThreshold) {
+        if (wilsonThreshold <= 0 || wilsonThreshold > 1) {
+            throw new IllegalArgumentException("wilsonThreshold must be in (0, 1]");
+        }
+        this.wilsonThreshold = wilsonThreshold;
+    }
+
+    public static AldousBroder hybrid() {
+        return new AldousBroder(DEFAULT_WILSON_THRESHOLD);
+    }
+
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        int rows = grid.rows();
+        int columns = grid.columns();
+        int[] offsets = {-columns, columns, -1, 1};
+
+        long[] visited = new long[(grid.size() + 63) >>> 6];
+        int unvisited = grid.size() - 1;
+        int stopAt = grid.size() - (int) Math.ceil(wilsonThreshold * grid.size());
+
+        int row = rng.nextInt(rows);
+        int col = rng.nextInt(columns);
+        int current = grid.index(row, col);
+        visited[current >>> 6] |= 1L << current;
+
+        if (grid.size() == 1) {
+            return;
+        }
+
+        long randomBits = 0;
+        int bitsLeft = 0;
+        long steps = 0;
+
+        while (unvisited > stopAt) {
+            if (bitsLeft == 0) {
+                randomBits = rng.nextLong();
+                bitsLeft = 32;
+            }
+            int direction = (int) (randomBits & 3);
+            randomBits >>>= 2;
+            --bitsLeft;
+
+            int nextRow = row + ROW_OFFSETS[direction];
+            int nextCol = col + COLUMN_OFFSETS[direction];
+            if (nextRow < 0 || nextRow >= rows || nextCol < 0 || nextCol >= columns) {
+                continue;
+            }
+
+            int neighbour = current + offsets[direction];
+            if ((visited[neighbour >>> 6] & (1L << neighbour)) == 0) {
+                visited[neighbour >>> 6] |= 1L << neighbour;
+                grid.link(current, neighbour);
+                --unvisited;
+            }
+
+            current = neighbour;
+            row = nextRow;
+            col = nextCol;
+            ++steps;
+        }
+        Metrics.add(Metrics.Counter.WALK_STEPS, steps);
+
+        if (unvisited > 0) {
+            Wilson.completeTree(grid, visited, rng);
+        }
+    }
+}
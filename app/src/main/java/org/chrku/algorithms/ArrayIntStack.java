@@ -0,0 +1,39 @@
+package org.chrku.algorithms;
+
+import java.util.Arrays;
+
+class ArrayIntStack implements IntStack {
+    private int[] values;
+    private int size;
+
+    ArrayIntStack(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 16)];
+    }
+
+    @Override
+    public void push(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, (int) Math.min(2L * values.length, Integer.MAX_VALUE - 8));
+        }
+        values[size++] = value;
+    }
+
+    @Override
+    public int pop() {
+        return values[--size];
+    }
+
+    @Override
+    public int peek() {
+        return values[size - 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,30 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+
+import java.util.random.RandomGenerator;
+
+public class BinaryTree implements MazeGenerator {
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rand) {
+        int[] neighbours = new int[2];
+
+        for (int row = 0; row < grid.rows(); ++row) {
+            for (int col = 0; col < grid.columns(); ++col) {
+                int current = grid.index(row, col);
+                int count = 0;
+
+                if (row > 0) {
+                    neighbours[count++] = current - grid.columns();
+                }
+                if (col + 1 < grid.columns()) {
+                    neighbours[count++] = current + 1;
+                }
+
+                if (count > 0) {
+                    grid.link(current, neighbours[rand.nextInt(count)]);
+                }
+            }
+        }
+    }
+}
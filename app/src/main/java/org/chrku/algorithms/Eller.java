@@ -0,0 +1,121 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+import org.chrku.grid.GridStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+// Eller's algorithm only needs the set membership of the current row, so the maze can be
+// streamed row by row to a RowSink with O(columns) memory, independent of the row count.
+public class Eller implements MazeGenerator {
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        GridStorage storage = grid.getStorage();
+        generateInto(grid, rng, (row, east, south) -> {
+            int offset = grid.index(row, 0);
+            for (int col = 0; col < grid.columns(); ++col) {
+                if (east[col]) {
+                    storage.setLinkedEast(offset + col, true);
+                }
+                if (south[col]) {
+                    storage.setLinkedSouth(offset + col, true);
+                }
+            }
+        });
+    }
+
+    private void generateInto(Grid grid, RandomGenerator rng, RowSink sink) {
+        try {
+            generate(grid.rows(), grid.columns(), sink, rng);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void generate(int rows, int columns, RowSink sink) throws IOException {
+        generate(rows, columns, sink, ThreadLocalRandom.current());
+    }
+
+    // An empty grid has no rows to send to the sink
+    public void generate(int rows, int columns, RowSink sink, RandomGenerator rng) throws IOException {
+        if (rows < 1 || columns < 1) {
+            return;
+        }
+
+        // Set of every cell in the next row, named by a column of the set in the
+        // previous row, or -1 for cells that start a new set
+        int[] sets = new int[columns];
+        // Union-find over the columns of the current row
+        int[] parent = new int[columns];
+        int[] firstColumn = new int[columns];
+        int[] lastColumn = new int[columns];
+        boolean[] hasSouth = new boolean[columns];
+
+        boolean[] east = new boolean[columns];
+        boolean[] south = new boolean[columns];
+
+        Arrays.fill(sets, -1);
+
+        for (int row = 0; row < rows; ++row) {
+            boolean lastRow = row + 1 == rows;
+
+            Arrays.fill(firstColumn, -1);
+            for (int col = 0; col < columns; ++col) {
+                if (sets[col] == -1) {
+                    parent[col] = col;
+                } else {
+                    if (firstColumn[sets[col]] == -1) {
+                        firstColumn[sets[col]] = col;
+                    }
+                    parent[col] = firstColumn[sets[col]];
+                }
+            }
+
+            // Randomly join neighbouring cells of different sets, the last row joins all of them
+            for (int col = 0; col + 1 < columns; ++col) {
+                int a = find(parent, col);
+                int b = find(parent, col + 1);
+                east[col] = a != b && (lastRow || rng.nextBoolean());
+                if (east[col]) {
+                    parent[b] = a;
+                }
+            }
+            east[columns - 1] = false;
+
+            if (lastRow) {
+                Arrays.fill(south, false);
+            } else {
+                // Every set needs at least one passage south, forced at its last cell if needed
+                for (int col = 0; col < columns; ++col) {
+                    lastColumn[find(parent, col)] = col;
+                }
+                Arrays.fill(hasSouth, false);
+
+                for (int col = 0; col < columns; ++col) {
+                    int set = find(parent, col);
+                    south[col] = rng.nextBoolean() || (lastColumn[set] == col && !hasSouth[set]);
+                    if (south[col]) {
+                        hasSouth[set] = true;
+                        sets[col] = set;
+                    } else {
+                        sets[col] = -1;
+                    }
+                }
+            }
+
+            sink.acceptRow(row, east, south);
+        }
+    }
+
+    private static int find(int[] parent, int col) {
+        while (parent[col] != col) {
+            parent[col] = parent[parent[col]];
+            col = parent[col];
+        }
+        return col;
+    }
+}
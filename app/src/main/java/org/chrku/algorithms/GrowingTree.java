@@ -0,0 +1,140 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+
+import java.util.random.RandomGenerator;
+
+// Growing tree: keeps a list of active cells, repeatedly picks one of them and carves to a
+// random unvisited neighbour, which becomes active too, or drops the cell once it has none.
+// Which cell is picked decides the texture: always the newest gives the long corridors of the
+// recursive backtracker, a random one the short dead ends of Prim, and mixing both lies between.
+//
+// The active cells live in one int array in the order they were added, from head to tail.
+// Dropping the oldest or newest cell moves the head or tail. Once a cell in the middle is
+// dropped, a Fenwick tree over the array counts the cells still active, so the selection's
+// position is mapped to its cell in logarithmic time and the order is kept for every
+// selection. Picking only the newest or oldest cell never builds it. Visited cells are a bitset.
+public class GrowingTree implements MazeGenerator {
+    // Picks one of count active cells, 0 is the oldest and count - 1 the newest
+    @FunctionalInterface
+    public interface Selection {
+        Selection NEWEST = (count, rng) -> count - 1;
+        Selection RANDOM = (count, rng) -> rng.nextInt(count);
+        Selection OLDEST = (count, rng) -> 0;
+
+        int select(int count, RandomGenerator rng);
+
+        // The newest cell with the given probability, otherwise a random one
+        static Selection mixed(double newestProbability) {
+            if (newestProbability < 0 || newestProbability > 1) {
+                throw new IllegalArgumentException("newestProbability must be in [0, 1]");
+            }
+            if (newestProbability == 1) {
+                return NEWEST;
+            }
+            if (newestProbability == 0) {
+                return RANDOM;
+            }
+            return (count, rng) -> rng.nextDouble() < newestProbability ? count - 1 : rng.nextInt(count);
+        }
+    }
+
+    private final Selection selection;
+
+    public GrowingTree(Selection selection) {
+        this.selection = selection;
+    }
+
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        int size = grid.size();
+        long[] visited = new long[(size + 63) >>> 6];
+        int[] neighbours = new int[4];
+
+        // Every cell is added once, so the tail never passes the end
+        int[] active = new int[size];
+        int head = 0;
+        int tail = 0;
+        int count = 0;
+        // Fenwick tree of the active cells by position, null while they are all in [head, tail)
+        int[] tree = null;
+
+        int start = grid.getRandomIndex(rng);
+        visited[start >>> 6] |= 1L << start;
+        active[tail++] = start;
+        ++count;
+
+        while (count > 0) {
+            int selected = selection.select(count, rng);
+            int index = tree == null ? head + selected : find(tree, selected);
+            int current = active[index];
+
+            int neighbourCount = grid.neighbours(current, neighbours);
+            int unvisitedCount = 0;
+            for (int i = 0; i < neighbourCount; ++i) {
+                int neighbour = neighbours[i];
+                if ((visited[neighbour >>> 6] & (1L << neighbour)) == 0) {
+                    neighbours[unvisitedCount++] = neighbour;
+                }
+            }
+
+            if (unvisitedCount == 0) {
+                --count;
+                if (tree != null) {
+                    add(tree, index, -1);
+                } else if (index == head) {
+                    ++head;
+                } else if (index == tail - 1) {
+                    --tail;
+                } else {
+                    tree = build(head, tail, size);
+                    add(tree, index, -1);
+                }
+            } else {
+                int neighbour = neighbours[rng.nextInt(unvisitedCount)];
+                grid.link(current, neighbour);
+                visited[neighbour >>> 6] |= 1L << neighbour;
+                active[tail++] = neighbour;
+                ++count;
+                if (tree != null) {
+                    add(tree, tail - 1, 1);
+                }
+            }
+        }
+    }
+
+    // One per position in [head, tail), built bottom up in linear time
+    private static int[] build(int head, int tail, int size) {
+        int[] tree = new int[size + 1];
+        for (int i = head; i < tail; ++i) {
+            tree[i + 1] = 1;
+        }
+        for (int i = 1; i <= size; ++i) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+        return tree;
+    }
+
+    private static void add(int[] tree, int index, int delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Position of the active cell with the given number of active cells before it
+    private static int find(int[] tree, int selected) {
+        int position = 0;
+        int remaining = selected + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+}
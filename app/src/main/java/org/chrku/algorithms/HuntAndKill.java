@@ -0,0 +1,98 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+
+import java.util.random.RandomGenerator;
+
+// The hunt picks the first unvisited cell (in row-major order) with a visited neighbour.
+// Those hunt candidates are kept in a bitset that is updated whenever a cell is visited,
+// with two summary levels on top (one bit per non-empty word, one per non-empty summary
+// word), so the lowest candidate is found by following three trailing-zero counts. The
+// search starts at the first unvisited cell, which only moves forward, because no cell
+// before it can be a candidate. Every hunt therefore costs at most a scan of the top level,
+// a 4096th of a bit per cell, instead of a rescan over unvisited cells.
+public class HuntAndKill implements MazeGenerator {
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        int size = grid.size();
+
+        boolean[] visited = new boolean[size];
+        long[] hunt = new long[(size + 63) >>> 6];
+        long[] huntWords = new long[(hunt.length + 63) >>> 6];
+        long[] huntBlocks = new long[(huntWords.length + 63) >>> 6];
+
+        int[] neighbours = new int[4];
+        int[] candidates = new int[4];
+        int firstUnvisited = 0;
+
+        int current = grid.getRandomIndex(rng);
+        while (true) {
+            visited[current] = true;
+            clearCandidate(hunt, huntWords, huntBlocks, current);
+
+            int count = grid.neighbours(current, neighbours);
+            int unvisitedCount = 0;
+            for (int i = 0; i < count; ++i) {
+                int neighbour = neighbours[i];
+                if (!visited[neighbour]) {
+                    candidates[unvisitedCount++] = neighbour;
+                    setCandidate(hunt, huntWords, huntBlocks, neighbour);
+                }
+            }
+
+            if (unvisitedCount > 0) {
+                int neighbour = candidates[rng.nextInt(unvisitedCount)];
+                grid.link(current, neighbour);
+                current = neighbour;
+                continue;
+            }
+
+            while (firstUnvisited < size && visited[firstUnvisited]) {
+                ++firstUnvisited;
+            }
+            if (firstUnvisited == size) {
+                break;
+            }
+
+            // The grid is connected, so some unvisited cell borders a visited one
+            current = lowestCandidate(hunt, huntWords, huntBlocks, firstUnvisited);
+            count = grid.neighbours(current, neighbours);
+            int visitedCount = 0;
+            for (int i = 0; i < count; ++i) {
+                if (visited[neighbours[i]]) {
+                    candidates[visitedCount++] = neighbours[i];
+                }
+            }
+            grid.link(current, candidates[rng.nextInt(visitedCount)]);
+        }
+    }
+
+    private static void setCandidate(long[] hunt, long[] huntWords, long[] huntBlocks, int cell) {
+        int word = cell >>> 6;
+        hunt[word] |= 1L << cell;
+        huntWords[word >>> 6] |= 1L << word;
+        huntBlocks[word >>> 12] |= 1L << (word >>> 6);
+    }
+
+    private static void clearCandidate(long[] hunt, long[] huntWords, long[] huntBlocks, int cell) {
+        int word = cell >>> 6;
+        hunt[word] &= ~(1L << cell);
+        if (hunt[word] == 0) {
+            huntWords[word >>> 6] &= ~(1L << word);
+            if (huntWords[word >>> 6] == 0) {
+                huntBlocks[word >>> 12] &= ~(1L << (word >>> 6));
+            }
+        }
+    }
+
+    // The lowest candidate, given that there is one and none is below from
+    private static int lowestCandidate(long[] hunt, long[] huntWords, long[] huntBlocks, int from) {
+        int block = from >>> 18;
+        while (huntBlocks[block] == 0) {
+            ++block;
+        }
+        int summary = (block << 6) + Long.numberOfTrailingZeros(huntBlocks[block]);
+        int word = (summary << 6) + Long.numberOfTrailingZeros(huntWords[summary]);
+        return (word << 6) + Long.numberOfTrailingZeros(hunt[word]);
+    }
+}
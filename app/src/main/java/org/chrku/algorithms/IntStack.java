@@ -0,0 +1,15 @@
+package org.chrku.algorithms;
+
+// Stack of cell ids for generators that would otherwise recurse
+interface IntStack extends AutoCloseable {
+    void push(int value);
+
+    int pop();
+
+    int peek();
+
+    boolean isEmpty();
+
+    @Override
+    void close();
+}
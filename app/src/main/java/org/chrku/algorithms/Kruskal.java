@@ -0,0 +1,307 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+import org.chrku.grid.GridStorage;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+// Randomized Kruskal: every wall is removed in a random order unless the cells on both sides
+// are already connected. Walls are ints (cell id * 2, plus 1 for the south wall) shuffled in one
+// array, and the connected sets are a union-find on an int array with path halving and union
+// by rank. Carving stops as soon as the cells form a single set.
+//
+// The tiled variant runs Kruskal inside every tile of the grid with a union-find that fits into
+// the cache, and then joins the tiles with Kruskal over the shuffled walls along the tile borders
+// and a union-find over the tiles. Tiles are carved in parallel bands of one tile row, and every
+// tile gets its own generator split off in tile order, so a seeded run does not depend on the
+// number of threads. Like ParallelTiledGenerator it leaves one passage between joined tiles, so
+// its mazes differ from the untiled ones and are not uniform Kruskal mazes: every tile is a
+// Kruskal maze of its own, and the tiles are joined by a random spanning tree of the tile graph.
+public class Kruskal implements MazeGenerator {
+    private static final int SOUTH = 1;
+
+    private static final int TILE_SIZE = ParallelTiledGenerator.DEFAULT_TILE_SIZE;
+
+    private final boolean tiled;
+    private final int threads;
+
+    public Kruskal() {
+        this(false, 1);
+    }
+
+    private Kruskal(boolean tiled, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.tiled = tiled;
+        this.threads = threads;
+    }
+
+    // Carves the tiles with the given number of threads. Two neighbouring tiles share at most one
+    // passage, so the mazes are not distributed like those of randomized Kruskal.
+    public static Kruskal tiled(int threads) {
+        return new Kruskal(true, threads);
+    }
+
+    // Carves the tiles with one thread per processor
+    public static Kruskal parallel() {
+        return tiled(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        if (grid.size() < 2) {
+            return;
+        }
+        if (tiled) {
+            generateTiled(grid, rng);
+            return;
+        }
+
+        int size = grid.size();
+        int[] walls = new int[wallCount(grid.rows(), grid.columns())];
+        shuffleWalls(grid.rows(), grid.columns(), grid.columns(), walls, rng);
+        int[] parents = new int[size];
+        byte[] ranks = new byte[size];
+        carve(grid, walls, parents, ranks);
+    }
+
+    private void generateTiled(Grid grid, RandomGenerator rng) {
+        int tileRows = (grid.rows() + TILE_SIZE - 1) / TILE_SIZE;
+        int tileColumns = (grid.columns() + TILE_SIZE - 1) / TILE_SIZE;
+
+        RandomGenerator[] tileRngs = new RandomGenerator[tileRows * tileColumns];
+        for (int tile = 0; tile < tileRngs.length; ++tile) {
+            tileRngs[tile] = Seeds.split(rng);
+        }
+
+        if (threads == 1 || tileRows == 1) {
+            for (int tileRow = 0; tileRow < tileRows; ++tileRow) {
+                carveBand(grid, tileRow, tileColumns, tileRngs);
+            }
+        } else {
+            // Neighbouring bands can share a word of packed storage, so even and odd bands take turns
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int parity = 0; parity < 2; ++parity) {
+                    int first = parity;
+                    pool.submit(() -> IntStream.range(0, (tileRows - first + 1) / 2).parallel()
+                                    .forEach(band -> carveBand(grid, first + 2 * band, tileColumns, tileRngs)))
+                            .join();
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        joinTiles(grid, rng, tileRows, tileColumns);
+    }
+
+    // Carves the tiles of one tile row, reusing the scratch arrays from tile to tile
+    private static void carveBand(Grid grid, int tileRow, int tileColumns, RandomGenerator[] tileRngs) {
+        int[] walls = new int[wallCount(TILE_SIZE, TILE_SIZE)];
+        int[] parents = new int[TILE_SIZE * TILE_SIZE];
+        int[] sizes = new int[TILE_SIZE * TILE_SIZE];
+        long[] passages = new long[2 * TILE_SIZE * TILE_SIZE / 64];
+
+        int rowOffset = tileRow * TILE_SIZE;
+        int rows = Math.min(TILE_SIZE, grid.rows() - rowOffset);
+        for (int tileColumn = 0; tileColumn < tileColumns; ++tileColumn) {
+            int columnOffset = tileColumn * TILE_SIZE;
+            int columns = Math.min(TILE_SIZE, grid.columns() - columnOffset);
+
+            shuffleWalls(rows, columns, TILE_SIZE, walls, tileRngs[tileRow * tileColumns + tileColumn]);
+            carveTile(grid, walls, grid.index(rowOffset, columnOffset), parents, sizes, passages, rows * columns);
+        }
+    }
+
+    // One passage for every border wall in a random order that joins two tiles not joined yet
+    private static void joinTiles(Grid grid, RandomGenerator rng, int tileRows, int tileColumns) {
+        int rows = grid.rows();
+        int columns = grid.columns();
+        int[] walls = new int[rows * (tileColumns - 1) + (tileRows - 1) * columns];
+
+        int count = 0;
+        for (int row = 0; row < rows; ++row) {
+            for (int column = TILE_SIZE - 1; column + 1 < columns; column += TILE_SIZE) {
+                int j = nextIndex(rng, count + 1);
+                walls[count++] = walls[j];
+                walls[j] = (row * columns + column) << 1;
+            }
+        }
+        for (int row = TILE_SIZE - 1; row + 1 < rows; row += TILE_SIZE) {
+            for (int column = 0; column < columns; ++column) {
+                int j = nextIndex(rng, count + 1);
+                walls[count++] = walls[j];
+                walls[j] = ((row * columns + column) << 1) | SOUTH;
+            }
+        }
+
+        int tiles = tileRows * tileColumns;
+        int[] parents = new int[tiles];
+        byte[] ranks = new byte[tiles];
+        for (int i = 0; i < tiles; ++i) {
+            parents[i] = i;
+        }
+
+        GridStorage storage = grid.getStorage();
+        int unions = tiles - 1;
+        for (int i = 0; i < count && unions > 0; ++i) {
+            int cell = walls[i] >>> 1;
+            boolean south = (walls[i] & SOUTH) != 0;
+            int row = cell / columns;
+            int column = cell % columns;
+            int tile = (row / TILE_SIZE) * tileColumns + column / TILE_SIZE;
+
+            if (union(parents, ranks, tile, south ? tile + tileColumns : tile + 1)) {
+                if (south) {
+                    storage.setLinkedSouth(cell, true);
+                } else {
+                    storage.setLinkedEast(cell, true);
+                }
+                --unions;
+            }
+        }
+    }
+
+    // Uniform in [0, bound) like rng.nextInt(bound), but with a multiplication instead of the
+    // division there, which dominates the shuffle (Lemire's method)
+    private static int nextIndex(RandomGenerator rng, int bound) {
+        long product = Integer.toUnsignedLong(rng.nextInt()) * bound;
+        if ((product & 0xFFFFFFFFL) < bound) {
+            long threshold = (1L << 32) % bound;
+            while ((product & 0xFFFFFFFFL) < threshold) {
+                product = Integer.toUnsignedLong(rng.nextInt()) * bound;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    private static int wallCount(int rows, int columns) {
+        return rows * (columns - 1) + (rows - 1) * columns;
+    }
+
+    // Inside-out Fisher-Yates, so the walls of a rows x columns block are shuffled while the
+    // array is filled. Cells are numbered row by row with the given stride.
+    private static void shuffleWalls(int rows, int columns, int stride, int[] walls, RandomGenerator rng) {
+        int count = 0;
+        for (int row = 0; row < rows; ++row) {
+            for (int column = 0; column < columns; ++column) {
+                int cell = row * stride + column;
+                if (column + 1 < columns) {
+                    int j = nextIndex(rng, count + 1);
+                    walls[count++] = walls[j];
+                    walls[j] = cell << 1;
+                }
+                if (row + 1 < rows) {
+                    int j = nextIndex(rng, count + 1);
+                    walls[count++] = walls[j];
+                    walls[j] = (cell << 1) | SOUTH;
+                }
+            }
+        }
+    }
+
+    // Removes the shuffled walls of the grid until the cells form a single set
+    private static void carve(Grid grid, int[] walls, int[] parents, byte[] ranks) {
+        GridStorage storage = grid.getStorage();
+        int columns = grid.columns();
+        for (int i = 0; i < parents.length; ++i) {
+            parents[i] = i;
+        }
+
+        int unions = parents.length - 1;
+        for (int i = 0; unions > 0; ++i) {
+            int cell = walls[i] >>> 1;
+            boolean south = (walls[i] & SOUTH) != 0;
+            if (!union(parents, ranks, cell, south ? cell + columns : cell + 1)) {
+                continue;
+            }
+
+            if (south) {
+                storage.setLinkedSouth(cell, true);
+            } else {
+                storage.setLinkedEast(cell, true);
+            }
+            --unions;
+        }
+    }
+
+    // Kruskal inside a tile whose first cell is origin in the grid. The cells of the tile are
+    // numbered with a stride of TILE_SIZE, so a wall is also the index of its passage bit. The
+    // sets are linked by size, and the passages are written to the grid afterwards.
+    private static void carveTile(Grid grid, int[] walls, int origin, int[] parents, int[] sizes,
+                                  long[] passages, int cells) {
+        for (int i = 0; i < parents.length; ++i) {
+            parents[i] = i;
+        }
+        Arrays.fill(sizes, 1);
+        Arrays.fill(passages, 0);
+
+        int unions = cells - 1;
+        for (int i = 0; unions > 0; ++i) {
+            int wall = walls[i];
+            int cell = wall >>> 1;
+            int a = find(parents, cell);
+            int b = find(parents, cell + 1 + (wall & SOUTH) * (TILE_SIZE - 1));
+            if (a == b) {
+                continue;
+            }
+
+            if (sizes[a] < sizes[b]) {
+                parents[a] = b;
+                sizes[b] += sizes[a];
+            } else {
+                parents[b] = a;
+                sizes[a] += sizes[b];
+            }
+            passages[wall >>> 6] |= 1L << wall;
+            --unions;
+        }
+
+        GridStorage storage = grid.getStorage();
+        int columns = grid.columns();
+        for (int word = 0; word < passages.length; ++word) {
+            for (long bits = passages[word]; bits != 0; bits &= bits - 1) {
+                int wall = (word << 6) + Long.numberOfTrailingZeros(bits);
+                int cell = wall >>> 1;
+                int target = origin + (cell / TILE_SIZE) * columns + cell % TILE_SIZE;
+                if ((wall & SOUTH) != 0) {
+                    storage.setLinkedSouth(target, true);
+                } else {
+                    storage.setLinkedEast(target, true);
+                }
+            }
+        }
+    }
+
+    // Joins the sets of a and b, false if they are the same set already
+    private static boolean union(int[] parents, byte[] ranks, int a, int b) {
+        a = find(parents, a);
+        b = find(parents, b);
+        if (a == b) {
+            return false;
+        }
+
+        if (ranks[a] < ranks[b]) {
+            parents[a] = b;
+        } else if (ranks[a] > ranks[b]) {
+            parents[b] = a;
+        } else {
+            parents[b] = a;
+            ++ranks[a];
+        }
+        return true;
+    }
+
+    private static int find(int[] parents, int cell) {
+        while (parents[cell] != cell) {
+            parents[cell] = parents[parents[cell]];
+            cell = parents[cell];
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,77 @@
+package org.chrku.algorithms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Stack backed by a memory mapped temporary file, mapped in segments as it grows.
+// The operating system pages out the deep parts, so the stack does not need heap.
+class MappedIntStack implements IntStack {
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_INTS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_INTS - 1;
+
+    private final FileChannel channel;
+    private final List<IntBuffer> segments;
+    private long size;
+
+    MappedIntStack() {
+        try {
+            Path file = Files.createTempFile("maze-stack", ".bin");
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.segments = new ArrayList<>();
+    }
+
+    @Override
+    public void push(int value) {
+        int segment = (int) (size >>> SEGMENT_SHIFT);
+        if (segment == segments.size()) {
+            try {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE,
+                        (long) segment * SEGMENT_INTS * Integer.BYTES,
+                        (long) SEGMENT_INTS * Integer.BYTES).asIntBuffer());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        segments.get(segment).put((int) (size & SEGMENT_MASK), value);
+        ++size;
+    }
+
+    @Override
+    public int pop() {
+        int value = peek();
+        --size;
+        return value;
+    }
+
+    @Override
+    public int peek() {
+        long index = size - 1;
+        return segments.get((int) (index >>> SEGMENT_SHIFT)).get((int) (index & SEGMENT_MASK));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
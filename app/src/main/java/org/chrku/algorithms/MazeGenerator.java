@@ -0,0 +1,36 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+public interface MazeGenerator {
+    // Works on integer cell ids (see Grid.index) and reusable scratch arrays instead of Cell
+    // objects, so it does not allocate per step.
+    void generateIndexed(Grid grid, RandomGenerator rng);
+
+    // Kept for callers of the Cell API, it carves the same maze as generateIndexed
+    default void generate(Grid grid, RandomGenerator rng) {
+        generateIndexed(grid, rng);
+    }
+
+    default void generate(Grid grid) {
+        generate(grid, ThreadLocalRandom.current());
+    }
+
+    default void generateIndexed(Grid grid) {
+        generateIndexed(grid, ThreadLocalRandom.current());
+    }
+
+    // The same seed gives the same maze for the same algorithm and grid size. A generator wrapped
+    // in a ParallelTiledGenerator counts as a different algorithm, its mazes differ from those of
+    // the generator alone but do not depend on the number of threads
+    default void generate(Grid grid, long seed) {
+        generate(grid, Seeds.generator(seed));
+    }
+
+    default void generateIndexed(Grid grid, long seed) {
+        generateIndexed(grid, Seeds.generator(seed));
+    }
+}
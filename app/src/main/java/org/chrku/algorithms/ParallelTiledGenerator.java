@@ -0,0 +1,126 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.ConcurrentGridStorage;
+import org.chrku.grid.Grid;
+import org.chrku.grid.GridStorage;
+import org.chrku.grid.PackedGridStorage;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+// Splits the grid into tiles, generates a perfect maze inside every tile in parallel
+// and then connects the tiles along a random spanning tree of the tile grid with one
+// passage per tree edge, so the result is a perfect maze again. Every tile gets its own
+// generator split off in tile order, so a seeded run does not depend on the scheduling.
+public class ParallelTiledGenerator implements MazeGenerator {
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private final Supplier<MazeGenerator> tileGenerator;
+    private final int threads;
+    private final int tileSize;
+
+    public ParallelTiledGenerator(Supplier<MazeGenerator> tileGenerator, int threads) {
+        this(tileGenerator, threads, DEFAULT_TILE_SIZE);
+    }
+
+    public ParallelTiledGenerator(Supplier<MazeGenerator> tileGenerator, int threads, int tileSize) {
+        if (threads < 1 || tileSize < 1) {
+            throw new IllegalArgumentException("threads and tileSize must be positive");
+        }
+        this.tileGenerator = tileGenerator;
+        this.threads = threads;
+        this.tileSize = tileSize;
+    }
+
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        int tileRows = (grid.rows() + tileSize - 1) / tileSize;
+        int tileColumns = (grid.columns() + tileSize - 1) / tileSize;
+
+        RandomGenerator[] tileRngs = new RandomGenerator[tileRows * tileColumns];
+        for (int tile = 0; tile < tileRngs.length; ++tile) {
+            tileRngs[tile] = Seeds.split(rng);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, tileRows * tileColumns).parallel()
+                    .forEach(tile -> generateTile(grid, tile / tileColumns, tile % tileColumns,
+                            tileRngs[tile])))
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
+
+        stitchTiles(grid, rng, tileRows, tileColumns);
+    }
+
+    private void generateTile(Grid grid, int tileRow, int tileColumn, RandomGenerator rng) {
+        int rowOffset = tileRow * tileSize;
+        int columnOffset = tileColumn * tileSize;
+        int rows = Math.min(tileSize, grid.rows() - rowOffset);
+        int columns = Math.min(tileSize, grid.columns() - columnOffset);
+
+        GridStorage tileStorage = new PackedGridStorage(rows, columns);
+        Grid tile = new Grid(tileStorage);
+        tileGenerator.get().generateIndexed(tile, rng);
+
+        // Other storages are not thread safe (neighbouring packed cells share a word),
+        // so copying the finished tile is serialised while other tiles keep generating.
+        GridStorage storage = grid.getStorage();
+        if (storage instanceof ConcurrentGridStorage) {
+            copyTile(tileStorage, storage, grid, rowOffset, columnOffset);
+            return;
+        }
+        synchronized (storage) {
+            copyTile(tileStorage, storage, grid, rowOffset, columnOffset);
+        }
+    }
+
+    private static void copyTile(GridStorage tileStorage, GridStorage storage, Grid grid,
+                                 int rowOffset, int columnOffset) {
+        int rows = tileStorage.rows();
+        int columns = tileStorage.columns();
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                int local = i * columns + j;
+                int global = grid.index(rowOffset + i, columnOffset + j);
+                if (j + 1 < columns && tileStorage.isLinkedEast(local)) {
+                    storage.setLinkedEast(global, true);
+                }
+                if (i + 1 < rows && tileStorage.isLinkedSouth(local)) {
+                    storage.setLinkedSouth(global, true);
+                }
+            }
+        }
+    }
+
+    private void stitchTiles(Grid grid, RandomGenerator rng, int tileRows, int tileColumns) {
+        // A perfect maze over the tiles is a spanning tree of the tile grid.
+        // Aldous-Broder keeps it uniform and needs no recursion.
+        Grid tiles = new Grid(new PackedGridStorage(tileRows, tileColumns));
+        new AldousBroder().generateIndexed(tiles, rng);
+        GridStorage tileLinks = tiles.getStorage();
+
+        for (int tileRow = 0; tileRow < tileRows; ++tileRow) {
+            for (int tileColumn = 0; tileColumn < tileColumns; ++tileColumn) {
+                int tile = tiles.index(tileRow, tileColumn);
+                int rowOffset = tileRow * tileSize;
+                int columnOffset = tileColumn * tileSize;
+                int rows = Math.min(tileSize, grid.rows() - rowOffset);
+                int columns = Math.min(tileSize, grid.columns() - columnOffset);
+
+                if (tileColumn + 1 < tileColumns && tileLinks.isLinkedEast(tile)) {
+                    int row = rowOffset + rng.nextInt(rows);
+                    grid.getStorage().setLinkedEast(grid.index(row, columnOffset + columns - 1), true);
+                }
+                if (tileRow + 1 < tileRows && tileLinks.isLinkedSouth(tile)) {
+                    int column = columnOffset + rng.nextInt(columns);
+                    grid.getStorage().setLinkedSouth(grid.index(rowOffset + rows - 1, column), true);
+                }
+            }
+        }
+    }
+}
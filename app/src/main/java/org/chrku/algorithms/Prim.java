@@ -0,0 +1,60 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+
+import java.util.random.RandomGenerator;
+
+// Randomized Prim: the frontier holds the cells next to the tree, and every step adds a random
+// frontier cell through a passage to a random neighbour already in the tree. Equivalent to
+// Prim's algorithm with random weights on the cells instead of the passages.
+//
+// The frontier is an int array with swap removal, tree and frontier membership are bitsets,
+// so every step takes constant time and nothing is allocated after the start.
+public class Prim implements MazeGenerator {
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        long[] inTree = new long[(grid.size() + 63) >>> 6];
+        long[] inFrontier = new long[(grid.size() + 63) >>> 6];
+        int[] neighbours = new int[4];
+
+        int[] frontier = new int[grid.size()];
+
+        int start = grid.getRandomIndex(rng);
+        inTree[start >>> 6] |= 1L << start;
+        int frontierSize = addNeighbours(grid, start, neighbours, inTree, inFrontier, frontier, 0);
+
+        while (frontierSize > 0) {
+            int index = rng.nextInt(frontierSize);
+            int current = frontier[index];
+            frontier[index] = frontier[--frontierSize];
+
+            int count = grid.neighbours(current, neighbours);
+            int treeCount = 0;
+            for (int i = 0; i < count; ++i) {
+                int neighbour = neighbours[i];
+                if ((inTree[neighbour >>> 6] & (1L << neighbour)) != 0) {
+                    neighbours[treeCount++] = neighbour;
+                }
+            }
+
+            grid.link(current, neighbours[rng.nextInt(treeCount)]);
+            inTree[current >>> 6] |= 1L << current;
+            frontierSize = addNeighbours(grid, current, neighbours, inTree, inFrontier, frontier, frontierSize);
+        }
+    }
+
+    // Adds the neighbours of the cell that are neither in the tree nor in the frontier
+    private static int addNeighbours(Grid grid, int cell, int[] neighbours, long[] inTree, long[] inFrontier,
+                                     int[] frontier, int frontierSize) {
+        int count = grid.neighbours(cell, neighbours);
+        for (int i = 0; i < count; ++i) {
+            int neighbour = neighbours[i];
+            long bit = 1L << neighbour;
+            if ((inTree[neighbour >>> 6] & bit) == 0 && (inFrontier[neighbour >>> 6] & bit) == 0) {
+                inFrontier[neighbour >>> 6] |= bit;
+                frontier[frontierSize++] = neighbour;
+            }
+        }
+        return frontierSize;
+    }
+}
@@ -0,0 +1,55 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+
+import java.util.random.RandomGenerator;
+
+// Depth-first carving with an explicit stack instead of recursion, so the depth is only
+// limited by memory. The stack top plays the role of the current recursion frame, which
+// keeps the choices (and thus the maze distribution) the same as the recursive version.
+public class RecursiveBacktracker implements MazeGenerator {
+    private final boolean mappedStack;
+
+    public RecursiveBacktracker() {
+        this(false);
+    }
+
+    // mappedStack keeps the stack in a memory mapped temporary file, for enormous grids
+    public RecursiveBacktracker(boolean mappedStack) {
+        this.mappedStack = mappedStack;
+    }
+
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        long[] visited = new long[(grid.size() + 63) >>> 6];
+        int[] neighbours = new int[4];
+
+        try (IntStack stack = mappedStack ? new MappedIntStack() : new ArrayIntStack(1024)) {
+            int start = grid.getRandomIndex(rng);
+            visited[start >>> 6] |= 1L << start;
+            stack.push(start);
+
+            while (!stack.isEmpty()) {
+                int current = stack.peek();
+
+                int count = grid.neighbours(current, neighbours);
+                int unvisitedCount = 0;
+                for (int i = 0; i < count; ++i) {
+                    int neighbour = neighbours[i];
+                    if ((visited[neighbour >>> 6] & (1L << neighbour)) == 0) {
+                        neighbours[unvisitedCount++] = neighbour;
+                    }
+                }
+
+                if (unvisitedCount == 0) {
+                    stack.pop();
+                } else {
+                    int neighbour = neighbours[rng.nextInt(unvisitedCount)];
+                    grid.link(current, neighbour);
+                    visited[neighbour >>> 6] |= 1L << neighbour;
+                    stack.push(neighbour);
+                }
+            }
+        }
+    }
+}
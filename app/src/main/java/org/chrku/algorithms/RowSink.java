@@ -0,0 +1,9 @@
+package org.chrku.algorithms;
+
+import java.io.IOException;
+
+// Receives a maze one row at a time. east[c] / south[c] tell whether cell c of the row
+// has a passage to its east / south neighbour. The arrays are reused for the next row.
+public interface RowSink {
+    void acceptRow(int row, boolean[] east, boolean[] south) throws IOException;
+}
@@ -0,0 +1,29 @@
+package org.chrku.algorithms;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+// Seeded generators for reproducible mazes. L64X128MixRandom is fast, has a period long
+// enough for any grid and can be split into independent generators for parallel work.
+public final class Seeds {
+    public static final String ALGORITHM = "L64X128MixRandom";
+
+    private static final RandomGeneratorFactory<SplittableGenerator> FACTORY =
+            RandomGeneratorFactory.of(ALGORITHM);
+
+    private Seeds() {
+    }
+
+    public static SplittableGenerator generator(long seed) {
+        return FACTORY.create(seed);
+    }
+
+    // An independent generator derived deterministically from rng
+    public static SplittableGenerator split(RandomGenerator rng) {
+        if (rng instanceof SplittableGenerator splittable) {
+            return splittable.split();
+        }
+        return generator(rng.nextLong());
+    }
+}
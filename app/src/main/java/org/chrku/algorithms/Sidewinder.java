@@ -0,0 +1,32 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+
+import java.util.random.RandomGenerator;
+
+public class Sidewinder implements MazeGenerator {
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rand) {
+        for (int row = 0; row < grid.rows(); ++row) {
+            int runStart = 0;
+
+            for (int col = 0; col < grid.columns(); ++col) {
+                boolean eastBoundary = col + 1 == grid.columns();
+                boolean northBoundary = row == 0;
+
+                boolean shouldClose = eastBoundary ||
+                        (rand.nextBoolean() && !northBoundary);
+
+                if (shouldClose) {
+                    int toClose = runStart + rand.nextInt(col - runStart + 1);
+                    if (!northBoundary) {
+                        grid.link(grid.index(row, toClose), grid.index(row - 1, toClose));
+                    }
+                    runStart = col + 1;
+                } else {
+                    grid.link(grid.index(row, col), grid.index(row, col + 1));
+                }
+            }
+        }
+    }
+}
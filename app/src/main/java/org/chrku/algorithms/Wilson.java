@@ -0,0 +1,106 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+import org.chrku.metrics.Metrics;
+
+import java.util.random.RandomGenerator;
+
+// Wilson's algorithm with the loop erasure done implicitly: the random walk only records
+// the direction it last left every cell in, and following those directions from the start
+// of the walk gives the loop-erased path. Tree membership is a bitset and cells not yet in
+// the tree are kept in a pool with swap removal, so the total cost is proportional to the
+// length of all walks.
+public class Wilson implements MazeGenerator {
+    private static final byte NORTH = 0;
+    private static final byte SOUTH = 1;
+    private static final byte WEST = 2;
+    private static final byte EAST = 3;
+
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        long[] inTree = new long[(grid.size() + 63) >>> 6];
+
+        int root = grid.getRandomIndex(rng);
+        inTree[root >>> 6] |= 1L << root;
+
+        completeTree(grid, inTree, rng);
+    }
+
+    // Adds every cell outside the tree (a bitset of cell ids) with loop-erased random walks.
+    // Also used by AldousBroder to finish its walk.
+    static void completeTree(Grid grid, long[] inTree, RandomGenerator rng) {
+        int size = grid.size();
+        int columns = grid.columns();
+
+        byte[] nextDirection = new byte[size];
+        byte[] directions = new byte[4];
+
+        int[] unvisited = new int[size];
+        int[] position = new int[size];
+        int unvisitedCount = 0;
+        for (int i = 0; i < size; ++i) {
+            if (!contains(inTree, i)) {
+                position[i] = unvisitedCount;
+                unvisited[unvisitedCount++] = i;
+            }
+        }
+
+        long steps = 0;
+        while (unvisitedCount > 0) {
+            int start = unvisited[rng.nextInt(unvisitedCount)];
+
+            int cell = start;
+            while (!contains(inTree, cell)) {
+                int count = directions(grid, cell, directions);
+                byte direction = directions[rng.nextInt(count)];
+                nextDirection[cell] = direction;
+                cell = step(cell, direction, columns);
+                ++steps;
+            }
+
+            cell = start;
+            while (!contains(inTree, cell)) {
+                int next = step(cell, nextDirection[cell], columns);
+                grid.link(cell, next);
+                inTree[cell >>> 6] |= 1L << cell;
+                unvisitedCount = remove(unvisited, position, unvisitedCount, cell);
+                cell = next;
+            }
+        }
+        Metrics.add(Metrics.Counter.WALK_STEPS, steps);
+    }
+
+    private static boolean contains(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static int directions(Grid grid, int cell, byte[] out) {
+        int row = grid.rowOf(cell);
+        int col = cell - row * grid.columns();
+        int count = 0;
+
+        if (row > 0) { out[count++] = NORTH; }
+        if (row + 1 < grid.rows()) { out[count++] = SOUTH; }
+        if (col > 0) { out[count++] = WEST; }
+        if (col + 1 < grid.columns()) { out[count++] = EAST; }
+
+        return count;
+    }
+
+    private static int step(int cell, byte direction, int columns) {
+        return switch (direction) {
+            case NORTH -> cell - columns;
+            case SOUTH -> cell + columns;
+            case WEST -> cell - 1;
+            default -> cell + 1;
+        };
+    }
+
+    private static int remove(int[] unvisited, int[] position, int count, int cell) {
+        int index = position[cell];
+        int last = unvisited[count - 1];
+        unvisited[index] = last;
+        position[last] = index;
+        return count - 1;
+    }
+}
@@ -0,0 +1,136 @@
+package org.chrku.cache;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+// Least recently used cache bounded by the total weight of its values, e.g. their size in bytes,
+// instead of their number. The lock is only held to look up and move entries: values are loaded
+// outside of it, and concurrent requests for a key that is being loaded wait for that load
+// instead of starting their own.
+public class LruCache<K, V> {
+    public interface Loader<K, V> {
+        V load(K key) throws IOException;
+    }
+
+    private final long capacity;
+    private final ToLongFunction<? super V> weigher;
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LruCache(long capacity, ToLongFunction<? super V> weigher) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        this.capacity = capacity;
+        this.weigher = weigher;
+    }
+
+    // null if the key is not cached
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            ++hits;
+        } else {
+            ++misses;
+        }
+        return value;
+    }
+
+    // Values heavier than the whole cache are not stored
+    public synchronized void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        V previous = entries.remove(key);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+        if (valueWeight > capacity) {
+            return;
+        }
+
+        entries.put(key, value);
+        weight += valueWeight;
+
+        Iterator<V> eldest = entries.values().iterator();
+        while (weight > capacity) {
+            weight -= weigher.applyAsLong(eldest.next());
+            eldest.remove();
+            ++evictions;
+        }
+    }
+
+    public V get(K key, Loader<? super K, ? extends V> loader) throws IOException {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            value = loader.load(key);
+            put(key, value);
+            load.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> load) throws IOException {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // The load only fails with the exceptions caught in get
+            if (e.getCause() instanceof IOException cause) {
+                throw new IOException(cause.getMessage(), cause);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
@@ -36,6 +36,13 @@ public class Cell {
         this.links = new HashSet<>();
     }
 
+    // Used by cells whose links live in a GridStorage instead of the cell itself
+    Cell(int row, int column, Set<Cell> links) {
+        this.row = row;
+        this.column = column;
+        this.links = links;
+    }
+
     public int getRow() {
         return row;
     }
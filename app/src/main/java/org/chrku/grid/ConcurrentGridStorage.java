@@ -0,0 +1,91 @@
+package org.chrku.grid;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Thread safe storage in the layout of {@link PackedGridStorage}. Passages are set and cleared
+ * with atomic bitwise operations on the shared words, so threads can carve neighbouring cells
+ * at the same time without losing each other's bits, e.g. the tiles of
+ * {@link org.chrku.algorithms.ParallelTiledGenerator}.
+ */
+public class ConcurrentGridStorage implements GridStorage {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int EAST = 0;
+    private static final int SOUTH = 1;
+
+    private final int numRows;
+    private final int numColumns;
+
+    private final long[] bits;
+
+    public ConcurrentGridStorage(int numRows, int numColumns) {
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        this.bits = new long[(int) ((2L * numRows * numColumns + 63) >>> 6)];
+    }
+
+    @Override
+    public int rows() {
+        return numRows;
+    }
+
+    @Override
+    public int columns() {
+        return numColumns;
+    }
+
+    @Override
+    public Cell getCell(int row, int column) {
+        return new PackedCell(this, row, column);
+    }
+
+    private boolean get(int index, int direction) {
+        long bit = 2L * index + direction;
+        return ((long) WORDS.getAcquire(bits, (int) (bit >>> 6)) & (1L << bit)) != 0;
+    }
+
+    private void set(int index, int direction, boolean value) {
+        long bit = 2L * index + direction;
+        long mask = 1L << bit;
+        if (value) {
+            WORDS.getAndBitwiseOr(bits, (int) (bit >>> 6), mask);
+        } else {
+            WORDS.getAndBitwiseAnd(bits, (int) (bit >>> 6), ~mask);
+        }
+    }
+
+    @Override
+    public boolean isLinkedEast(int index) {
+        return get(index, EAST);
+    }
+
+    @Override
+    public boolean isLinkedSouth(int index) {
+        return get(index, SOUTH);
+    }
+
+    @Override
+    public void setLinkedEast(int index, boolean linked) {
+        set(index, EAST, linked);
+    }
+
+    @Override
+    public void setLinkedSouth(int index, boolean linked) {
+        set(index, SOUTH, linked);
+    }
+
+    // Removes all passages, which must not race with carving
+    @Override
+    public void clear() {
+        Arrays.fill(bits, 0);
+        VarHandle.fullFence();
+    }
+
+    @Override
+    public long getWord(int word) {
+        return (long) WORDS.getAcquire(bits, word);
+    }
+}
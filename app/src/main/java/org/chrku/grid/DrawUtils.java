@@ -0,0 +1,67 @@
+package org.chrku.grid;
+
+import java.awt.*;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+public class DrawUtils {
+    private static final int[] RGB_MASKS = {0xFF0000, 0xFF00, 0xFF};
+
+    private DrawUtils() {
+    }
+
+    public static void fillRect(WritableRaster raster, int x, int y, int width, int height, Color color) {
+        // Clip to the raster, rectangles may be partially outside when drawing bands
+        int minX = Math.max(x, raster.getMinX());
+        int minY = Math.max(y, raster.getMinY());
+        int maxX = Math.min(x + width, raster.getMinX() + raster.getWidth());
+        int maxY = Math.min(y + height, raster.getMinY() + raster.getHeight());
+
+        if (minX >= maxX || minY >= maxY) {
+            return;
+        }
+
+        if (isPackedRgb(raster)) {
+            fillPackedRgb(raster, minX, minY, maxX, maxY, color);
+            return;
+        }
+
+        int[] comp = new int[3];
+
+        comp[0] = color.getRed();
+        comp[1] = color.getGreen();
+        comp[2] = color.getBlue();
+
+        for (int i = minY; i < maxY; ++i) {
+            for (int j = minX; j < maxX; ++j) {
+                raster.setPixel(j, i, comp);
+            }
+        }
+    }
+
+    // TYPE_INT_RGB and friends: one int per pixel, so spans can be filled in the backing array directly
+    private static boolean isPackedRgb(WritableRaster raster) {
+        return raster.getDataBuffer() instanceof DataBufferInt
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel
+                && raster.getDataBuffer().getNumBanks() == 1
+                && Arrays.equals(sampleModel.getBitMasks(), RGB_MASKS);
+    }
+
+    private static void fillPackedRgb(WritableRaster raster, int minX, int minY, int maxX, int maxY, Color color) {
+        DataBuffer buffer = raster.getDataBuffer();
+        int[] data = ((DataBufferInt) buffer).getData();
+        int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+        int offset = buffer.getOffset()
+                - raster.getSampleModelTranslateY() * stride
+                - raster.getSampleModelTranslateX();
+        int rgb = color.getRGB() & 0xFFFFFF;
+
+        for (int i = minY; i < maxY; ++i) {
+            int start = offset + i * stride;
+            Arrays.fill(data, start + minX, start + maxX, rgb);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package org.chrku.grid;
+
+import org.chrku.io.CellColors;
+import org.chrku.io.ImageOptions;
+import org.chrku.io.ImageRowWriter;
+import org.chrku.io.ParallelImageWriter;
+import org.chrku.io.TextRowWriter;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.zip.Deflater;
+
+public class Grid {
+    private final int numRows;
+    private final int numColumns;
+
+    private final GridStorage storage;
+
+    public Grid(int numRows, int numColumns) {
+        this(new ObjectGridStorage(numRows, numColumns));
+    }
+
+    public Grid(GridStorage storage) {
+        this.numRows = storage.rows();
+        this.numColumns = storage.columns();
+        this.storage = storage;
+    }
+
+    public GridStorage getStorage() {
+        return storage;
+    }
+
+    public int size() {
+        return numRows * numColumns;
+    }
+
+    public int rows() {
+        return numRows;
+    }
+
+    public int columns() {
+        return numColumns;
+    }
+
+    public Cell getCell(int row, int col) {
+        if (row < 0 || col < 0 || row >= numRows || col >= numColumns) {
+            return null;
+        }
+
+        return storage.getCell(row, col);
+    }
+
+    public List<Cell> getRow(int row) {
+        if (row < 0 || row >= numRows) {
+            return null;
+        }
+
+        return storage.getRow(row);
+    }
+
+    public Cell getRandomCell(RandomGenerator rng) {
+        int row = rng.nextInt(numRows);
+        int col = rng.nextInt(numColumns);
+
+        return storage.getCell(row, col);
+    }
+
+    public int getRandomIndex(RandomGenerator rng) {
+        int row = rng.nextInt(numRows);
+        int col = rng.nextInt(numColumns);
+
+        return index(row, col);
+    }
+
+    // Integer cell ids: row * columns + column
+
+    public int index(int row, int col) {
+        return row * numColumns + col;
+    }
+
+    public int rowOf(int index) {
+        return index / numColumns;
+    }
+
+    public int columnOf(int index) {
+        return index % numColumns;
+    }
+
+    // Writes the ids of the neighbours in the order north, south, west, east
+    // (same as Cell.neighbours()) and returns how many were written.
+    public int neighbours(int index, int[] out) {
+        int row = rowOf(index);
+        int col = index - row * numColumns;
+        int count = 0;
+
+        if (row > 0) { out[count++] = index - numColumns; }
+        if (row + 1 < numRows) { out[count++] = index + numColumns; }
+        if (col > 0) { out[count++] = index - 1; }
+        if (col + 1 < numColumns) { out[count++] = index + 1; }
+
+        return count;
+    }
+
+    // Writes the ids of the linked neighbours, same order as neighbours()
+    public int links(int index, int[] out) {
+        int row = rowOf(index);
+        int col = index - row * numColumns;
+        int count = 0;
+
+        if (row > 0 && storage.isLinkedSouth(index - numColumns)) { out[count++] = index - numColumns; }
+        if (row + 1 < numRows && storage.isLinkedSouth(index)) { out[count++] = index + numColumns; }
+        if (col > 0 && storage.isLinkedEast(index - 1)) { out[count++] = index - 1; }
+        if (col + 1 < numColumns && storage.isLinkedEast(index)) { out[count++] = index + 1; }
+
+        return count;
+    }
+
+    public boolean hasLinks(int index) {
+        int row = rowOf(index);
+        int col = index - row * numColumns;
+
+        return (row > 0 && storage.isLinkedSouth(index - numColumns))
+                || (row + 1 < numRows && storage.isLinkedSouth(index))
+                || (col > 0 && storage.isLinkedEast(index - 1))
+                || (col + 1 < numColumns && storage.isLinkedEast(index));
+    }
+
+    // Number of linked pairs of cells, counted two bits per cell at a time
+    public long passages() {
+        long passages = 0;
+        int words = (int) ((2L * size() + 63) >>> 6);
+        for (int word = 0; word < words; ++word) {
+            passages += Long.bitCount(storage.getWord(word));
+        }
+        return passages;
+    }
+
+    public boolean isLinked(int a, int b) {
+        int low = Math.min(a, b);
+        int diff = Math.abs(a - b);
+
+        if (diff == numColumns) {
+            return storage.isLinkedSouth(low);
+        } else if (diff == 1 && rowOf(a) == rowOf(b)) {
+            return storage.isLinkedEast(low);
+        }
+        return false;
+    }
+
+    public void link(int a, int b) {
+        setLinked(a, b, true);
+    }
+
+    public void unlink(int a, int b) {
+        setLinked(a, b, false);
+    }
+
+    private void setLinked(int a, int b, boolean linked) {
+        int low = Math.min(a, b);
+        int diff = Math.abs(a - b);
+
+        if (diff == numColumns) {
+            storage.setLinkedSouth(low, linked);
+        } else if (diff == 1 && rowOf(a) == rowOf(b)) {
+            storage.setLinkedEast(low, linked);
+        } else {
+            throw new IllegalArgumentException("Cells " + a + " and " + b + " are not adjacent");
+        }
+    }
+
+    public class CellIterator implements Iterator<Cell> {
+        private int curRow;
+        private int curCol;
+
+        public CellIterator() {
+            this.curRow = 0;
+            this.curCol = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.curRow < Grid.this.numRows;
+        }
+
+        @Override
+        public Cell next() {
+            var retVal = Grid.this.getCell(curRow, curCol);
+
+            ++this.curCol;
+            if (this.curCol >= Grid.this.numColumns) {
+                this.curCol = 0;
+                ++this.curRow;
+            }
+
+            return retVal;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Cell> action) {
+            while (hasNext()) {
+                action.accept(next());
+            }
+        }
+    }
+
+    public class RowIterator implements Iterator<List<Cell>> {
+        private int curRow;
+
+        public RowIterator() {
+            this.curRow = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.curRow < Grid.this.numRows;
+        }
+
+        @Override
+        public List<Cell> next() {
+            var ret = Grid.this.getRow(curRow);
+            ++curRow;
+            return ret;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super List<Cell>> action) {
+            while (hasNext()) {
+                action.accept(next());
+            }
+        }
+    }
+
+    public RowIterator rowIterator() {
+        return new RowIterator();
+    }
+
+    public CellIterator cellIterator() {
+        return new CellIterator();
+    }
+
+    @Override
+    public String toString() {
+        StringWriter writer = new StringWriter((int) Math.min(textLength(), Integer.MAX_VALUE - 8));
+        try {
+            writeText(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    // Writes the text of toString row by row, without building the whole string
+    public void writeText(Writer writer) throws IOException {
+        if (numRows == 0) {
+            writer.write("+" + "---+".repeat(numColumns) + "\n");
+            return;
+        }
+
+        TextRowWriter rowWriter = new TextRowWriter(writer, numColumns);
+        boolean[] east = new boolean[numColumns];
+        boolean[] south = new boolean[numColumns];
+        for (int row = 0; row < numRows; ++row) {
+            readRow(row, east, south);
+            rowWriter.acceptRow(row, east, south);
+        }
+    }
+
+    // Length of the text written by writeText, used to presize buffers
+    private long textLength() {
+        return (4L * numColumns + 2) * (2L * numRows + 1);
+    }
+
+    // Colours of the cells in image output, null for a white background
+    protected CellColors cellColors() {
+        return null;
+    }
+
+    // Passages of a row in the form used by the row based writers
+    public void readRow(int row, boolean[] east, boolean[] south) {
+        int offset = index(row, 0);
+        for (int col = 0; col < numColumns; ++col) {
+            east[col] = col + 1 < numColumns && storage.isLinkedEast(offset + col);
+            south[col] = row + 1 < numRows && storage.isLinkedSouth(offset + col);
+        }
+    }
+
+    // Colours used in image output, null if there are more than fit into a palette
+    protected int[] imagePalette() {
+        CellColors colors = cellColors();
+        if (colors == null) {
+            return new int[]{Color.WHITE.getRGB() & 0xFFFFFF, Color.BLACK.getRGB() & 0xFFFFFF};
+        }
+
+        Set<Integer> used = new LinkedHashSet<>();
+        used.add(Color.BLACK.getRGB() & 0xFFFFFF);
+        for (int row = 0; row < numRows; ++row) {
+            for (int col = 0; col < numColumns; ++col) {
+                used.add(colors.get(row, col).getRGB() & 0xFFFFFF);
+                if (used.size() > 256) {
+                    return null;
+                }
+            }
+        }
+
+        return used.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public void writeImage(Path path, int cellSize, int lineWidth) throws IOException {
+        writeImage(path, cellSize, lineWidth, ImageOptions.DEFAULT);
+    }
+
+    public void writeImage(Path path, int cellSize, int lineWidth, int threads) throws IOException {
+        writeImage(path, cellSize, lineWidth,
+                new ImageOptions(threads, Deflater.DEFAULT_COMPRESSION, false));
+    }
+
+    // With more than one thread, stripes of rows are rendered and compressed in parallel
+    public void writeImage(Path path, int cellSize, int lineWidth, ImageOptions options) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeImage(channel, cellSize, lineWidth, options);
+        }
+    }
+
+    // Writes the PNG to the channel and leaves it open
+    public void writeImage(WritableByteChannel channel, int cellSize, int lineWidth,
+                           ImageOptions options) throws IOException {
+        CellColors colors = cellColors();
+        int[] palette = options.indexed() ? imagePalette() : null;
+
+        if (options.threads() > 1) {
+            new ParallelImageWriter(numRows, numColumns, cellSize, lineWidth, options)
+                    .write(channel, this::readRow, colors, palette);
+            return;
+        }
+
+        boolean[] east = new boolean[numColumns];
+        boolean[] south = new boolean[numColumns];
+        try (ImageRowWriter writer = new ImageRowWriter(channel, numRows, numColumns,
+                cellSize, lineWidth, colors, options, palette)) {
+            for (int row = 0; row < numRows; ++row) {
+                readRow(row, east, south);
+                writer.acceptRow(row, east, south);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.chrku.grid;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Backing store for the passages of a {@link Grid}.
+ * Cells are addressed by index (row * columns + column). Only the east and south
+ * passage of every cell is stored, north and west are the south and east passages
+ * of the neighbouring cells.
+ */
+public interface GridStorage {
+    int rows();
+
+    int columns();
+
+    Cell getCell(int row, int column);
+
+    default List<Cell> getRow(int row) {
+        List<Cell> cells = new ArrayList<>(columns());
+        for (int j = 0; j < columns(); ++j) {
+            cells.add(getCell(row, j));
+        }
+        return cells;
+    }
+
+    boolean isLinkedEast(int index);
+
+    boolean isLinkedSouth(int index);
+
+    void setLinkedEast(int index, boolean linked);
+
+    void setLinkedSouth(int index, boolean linked);
+
+    // Removes all passages, so the storage can be reused for another maze
+    default void clear() {
+        for (int row = 0; row < rows(); ++row) {
+            for (int column = 0; column < columns(); ++column) {
+                int index = row * columns() + column;
+                if (column + 1 < columns()) {
+                    setLinkedEast(index, false);
+                }
+                if (row + 1 < rows()) {
+                    setLinkedSouth(index, false);
+                }
+            }
+        }
+    }
+
+    // Passages of the cells 32 * word to 32 * word + 31, two bits per cell with east in the
+    // lower bit, which is the layout of PackedGridStorage and of maze files
+    default long getWord(int word) {
+        int first = word * 32;
+        int last = Math.min(first + 32, rows() * columns());
+        long bits = 0;
+        for (int i = first; i < last; ++i) {
+            int shift = 2 * (i - first);
+            if (isLinkedEast(i)) {
+                bits |= 1L << shift;
+            }
+            if (isLinkedSouth(i)) {
+                bits |= 2L << shift;
+            }
+        }
+        return bits;
+    }
+}
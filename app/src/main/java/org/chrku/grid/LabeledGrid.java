@@ -0,0 +1,265 @@
+package org.chrku.grid;
+
+import org.chrku.io.CellColors;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.List;
+
+public class LabeledGrid extends Grid {
+    private final Color pathColor;
+    private final Color baseColor;
+    // Label per cell id
+    private double[] labels;
+    // Bitset of the cell ids on the path, null without a path
+    private long[] pathBits;
+
+    public LabeledGrid(int numRows, int numCols, Color baseColor, Color pathColor) {
+        this(new ObjectGridStorage(numRows, numCols), baseColor, pathColor);
+    }
+
+    public LabeledGrid(GridStorage storage, Color baseColor, Color pathColor) {
+        super(storage);
+
+        this.baseColor = baseColor;
+        this.pathColor = pathColor;
+        this.labels = new double[size()];
+        this.pathBits = new long[(size() + 63) >>> 6];
+    }
+
+    private static Color getInterpolatedColor(double value,
+                                              double minVal,
+                                              double maxVal,
+                                              float hue,
+                                              float brightness) {
+        double saturation = (value - minVal) / (maxVal - minVal);
+        return Color.getHSBColor(hue, (float) saturation, brightness);
+    }
+
+    public void setLabels(List<List<Double>> labels) {
+        for (int i = 0; i < rows(); ++i) {
+            List<Double> row = labels.get(i);
+            for (int j = 0; j < columns(); ++j) {
+                this.labels[index(i, j)] = row.get(j);
+            }
+        }
+    }
+
+    // Distances per cell id, e.g. from MazeAnalytics, with -1 for unreachable cells
+    public void setLabels(int[] distances) {
+        for (int i = 0; i < labels.length; ++i) {
+            labels[i] = distances[i] == -1 ? Double.POSITIVE_INFINITY : distances[i];
+        }
+    }
+
+    // The path is stored by cell position. null frames every text label.
+    public void setPath(Set<Cell> path) {
+        if (path == null) {
+            this.pathBits = null;
+            return;
+        }
+
+        this.pathBits = new long[(size() + 63) >>> 6];
+        for (Cell c : path) {
+            if (c.getRow() >= 0 && c.getRow() < rows() && c.getColumn() >= 0 && c.getColumn() < columns()) {
+                int index = index(c.getRow(), c.getColumn());
+                pathBits[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    // Path given as cell ids, like setPath. The bitset of an earlier path is reused.
+    public void setPathIndices(int[] path) {
+        if (path == null) {
+            this.pathBits = null;
+            return;
+        }
+
+        if (pathBits == null) {
+            this.pathBits = new long[(size() + 63) >>> 6];
+        } else {
+            Arrays.fill(pathBits, 0);
+        }
+        for (int index : path) {
+            pathBits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    private double getMinVal() {
+        double minVal = Double.MAX_VALUE;
+
+        for (double elem : labels) {
+            if (elem < minVal) {
+                minVal = elem;
+            }
+        }
+
+        return minVal;
+    }
+
+    private double getMaxVal() {
+        double maxVal = Double.MIN_VALUE;
+
+        for (double elem : labels) {
+            if (elem > maxVal) {
+                maxVal = elem;
+            }
+        }
+
+        return maxVal;
+    }
+
+    @Override
+    protected CellColors cellColors() {
+        double minVal = getMinVal();
+        double maxVal = getMaxVal();
+        float[] hsbColor = Color.RGBtoHSB(baseColor.getRed(), baseColor.getGreen(), baseColor.getBlue(), null);
+        float[] hsbColorPath = Color.RGBtoHSB(pathColor.getRed(), pathColor.getGreen(), pathColor.getBlue(), null);
+
+        return (int row, int column) -> {
+            double value = labels[index(row, column)];
+
+            if (pathBits != null && contains(pathBits, index(row, column))) {
+                value = Math.min(value + 0.15 * maxVal, maxVal);
+                return getInterpolatedColor(value, minVal, maxVal, hsbColorPath[0], hsbColorPath[2]);
+            } else {
+                return getInterpolatedColor(value, minVal, maxVal, hsbColor[0], hsbColor[2]);
+            }
+        };
+    }
+
+    private static boolean contains(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // Text labels are the distances cut to ints, framed as |label| on the path (or everywhere
+    // if the path is null), right aligned to the widest label
+    private boolean framed(int index) {
+        return pathBits == null || contains(pathBits, index);
+    }
+
+    private int labelWidth() {
+        int width = 0;
+        for (int i = 0; i < labels.length; ++i) {
+            int length = intLength((int) labels[i]);
+            if (framed(i)) {
+                length += 2;
+            }
+            width = Math.max(width, length);
+        }
+        return width;
+    }
+
+    private static int intLength(int value) {
+        int length = value < 0 ? 2 : 1;
+        for (long rest = Math.abs((long) value); rest >= 10; rest /= 10) {
+            ++length;
+        }
+        return length;
+    }
+
+    // Writes the digits of value so that they end before end, returns the first written position
+    private static int putInt(char[] line, int end, int value) {
+        long rest = Math.abs((long) value);
+        do {
+            line[--end] = (char) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+
+        if (value < 0) {
+            line[--end] = '-';
+        }
+        return end;
+    }
+
+    // Scans the labels for their width once and uses it for presizing and writing
+    @Override
+    public String toString() {
+        int width = labelWidth();
+        StringWriter writer = new StringWriter((int) Math.min(textLength(width), Integer.MAX_VALUE - 8));
+        try {
+            writeText(writer, width);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    private long textLength(int width) {
+        long lineLength = (long) columns() * (width + 3) + 2;
+        return lineLength * (1 + rows() * ((width / 2) * 2 + 2L));
+    }
+
+    @Override
+    public void writeText(Writer writer) throws IOException {
+        writeText(writer, labelWidth());
+    }
+
+    private void writeText(Writer writer, int width) throws IOException {
+        int verticalPad = (width / 2) * 2 + 1;
+        int columns = columns();
+        int cellWidth = width + 3;
+
+        char[] line = new char[columns * cellWidth + 2];
+        char[] blank = new char[line.length];
+        boolean[] east = new boolean[columns];
+        boolean[] south = new boolean[columns];
+
+        writeBottom(writer, line, south, width);
+
+        for (int row = 0; row < rows(); ++row) {
+            readRow(row, east, south);
+
+            line[0] = '|';
+            blank[0] = '|';
+            for (int col = 0; col < columns; ++col) {
+                int offset = 1 + col * cellWidth;
+                char wall = east[col] ? ' ' : '|';
+
+                Arrays.fill(blank, offset, offset + width + 2, ' ');
+                blank[offset + width + 2] = wall;
+
+                int end = offset + width + 1;
+                int index = index(row, col);
+                int value = (int) labels[index];
+                if (framed(index)) {
+                    line[--end] = '|';
+                    end = putInt(line, end, value);
+                    line[--end] = '|';
+                } else {
+                    end = putInt(line, end, value);
+                }
+                Arrays.fill(line, offset, end, ' ');
+                line[offset + width + 1] = ' ';
+                line[offset + width + 2] = wall;
+            }
+            line[line.length - 1] = '\n';
+            blank[blank.length - 1] = '\n';
+
+            for (int i = 0; i < verticalPad / 2; ++i) {
+                writer.write(blank);
+            }
+            writer.write(line);
+            for (int i = 0; i < verticalPad / 2; ++i) {
+                writer.write(blank);
+            }
+
+            writeBottom(writer, line, south, width);
+        }
+    }
+
+    private static void writeBottom(Writer writer, char[] line, boolean[] south, int width) throws IOException {
+        line[0] = '+';
+        for (int col = 0; col < south.length; ++col) {
+            int offset = 1 + col * (width + 3);
+            Arrays.fill(line, offset, offset + width + 2, south[col] ? ' ' : '-');
+            line[offset + width + 2] = '+';
+        }
+        line[line.length - 1] = '\n';
+        writer.write(line);
+    }
+}
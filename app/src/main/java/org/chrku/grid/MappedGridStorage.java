@@ -0,0 +1,82 @@
+package org.chrku.grid;
+
+import java.nio.LongBuffer;
+
+/**
+ * Storage reading the passages directly from a buffer in the layout of {@link PackedGridStorage},
+ * typically a memory mapped maze file (see {@link org.chrku.io.MazeFile}). Nothing is copied,
+ * the operating system pages the bits in as they are used. Writing requires a writable buffer.
+ */
+public class MappedGridStorage implements GridStorage {
+    private static final int EAST = 0;
+    private static final int SOUTH = 1;
+
+    private final int numRows;
+    private final int numColumns;
+
+    private final LongBuffer words;
+
+    public MappedGridStorage(int numRows, int numColumns, LongBuffer words) {
+        if (words.capacity() < (2L * numRows * numColumns + 63) >>> 6) {
+            throw new IllegalArgumentException("Buffer too small for a " + numRows + "x" + numColumns + " grid");
+        }
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        this.words = words;
+    }
+
+    @Override
+    public int rows() {
+        return numRows;
+    }
+
+    @Override
+    public int columns() {
+        return numColumns;
+    }
+
+    @Override
+    public Cell getCell(int row, int column) {
+        return new PackedCell(this, row, column);
+    }
+
+    private boolean get(int index, int direction) {
+        long bit = 2L * index + direction;
+        return (words.get((int) (bit >>> 6)) & (1L << bit)) != 0;
+    }
+
+    private void set(int index, int direction, boolean value) {
+        long bit = 2L * index + direction;
+        int word = (int) (bit >>> 6);
+        if (value) {
+            words.put(word, words.get(word) | (1L << bit));
+        } else {
+            words.put(word, words.get(word) & ~(1L << bit));
+        }
+    }
+
+    @Override
+    public boolean isLinkedEast(int index) {
+        return get(index, EAST);
+    }
+
+    @Override
+    public boolean isLinkedSouth(int index) {
+        return get(index, SOUTH);
+    }
+
+    @Override
+    public void setLinkedEast(int index, boolean linked) {
+        set(index, EAST, linked);
+    }
+
+    @Override
+    public void setLinkedSouth(int index, boolean linked) {
+        set(index, SOUTH, linked);
+    }
+
+    @Override
+    public long getWord(int word) {
+        return words.get(word);
+    }
+}
@@ -0,0 +1,110 @@
+package org.chrku.grid;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Storage keeping one {@link Cell} object per cell, with the passages stored in the
+ * link sets of the cells.
+ */
+public class ObjectGridStorage implements GridStorage {
+    private final int numRows;
+    private final int numColumns;
+
+    private final List<List<Cell>> cells;
+
+    public ObjectGridStorage(int numRows, int numColumns) {
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        this.cells = new ArrayList<>();
+
+        prepareGrid();
+    }
+
+    private void prepareGrid() {
+        for (int i = 0; i < numRows; i++) {
+            cells.add(new ArrayList<>());
+            for (int j = 0; j < numColumns; j++) {
+                cells.get(i).add(new Cell(i, j));
+            }
+        }
+
+        for (int i = 0; i < numRows; i++) {
+            for (int j = 0; j < numColumns; j++) {
+                Cell current = cells.get(i).get(j);
+
+                if (i - 1 >= 0) {
+                    current.setNorth(cells.get(i - 1).get(j));
+                }
+                if (i + 1 < numRows) {
+                    current.setSouth(cells.get(i + 1).get(j));
+                }
+                if (j - 1 >= 0) {
+                    current.setWest(cells.get(i).get(j - 1));
+                }
+                if (j + 1 < numColumns) {
+                    current.setEast(cells.get(i).get(j + 1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public int rows() {
+        return numRows;
+    }
+
+    @Override
+    public int columns() {
+        return numColumns;
+    }
+
+    @Override
+    public Cell getCell(int row, int column) {
+        return cells.get(row).get(column);
+    }
+
+    @Override
+    public List<Cell> getRow(int row) {
+        return cells.get(row);
+    }
+
+    private Cell cellAt(int index) {
+        return cells.get(index / numColumns).get(index % numColumns);
+    }
+
+    @Override
+    public boolean isLinkedEast(int index) {
+        Cell cell = cellAt(index);
+        return cell.isLinked(cell.getEast());
+    }
+
+    @Override
+    public boolean isLinkedSouth(int index) {
+        Cell cell = cellAt(index);
+        return cell.isLinked(cell.getSouth());
+    }
+
+    @Override
+    public void setLinkedEast(int index, boolean linked) {
+        Cell cell = cellAt(index);
+        setLinked(cell, cell.getEast(), linked);
+    }
+
+    @Override
+    public void setLinkedSouth(int index, boolean linked) {
+        Cell cell = cellAt(index);
+        setLinked(cell, cell.getSouth(), linked);
+    }
+
+    private static void setLinked(Cell cell, Cell other, boolean linked) {
+        if (other == null) {
+            throw new IndexOutOfBoundsException("No neighbour at (" + cell.getRow() + ", " + cell.getColumn() + ")");
+        }
+        if (linked) {
+            cell.link(other, true);
+        } else {
+            cell.unlink(other, true);
+        }
+    }
+}
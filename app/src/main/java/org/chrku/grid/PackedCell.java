@@ -0,0 +1,160 @@
+package org.chrku.grid;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cell view into a {@link GridStorage}. Views are created on demand, so they compare equal
+ * by position rather than by identity. Links are always bidirectional.
+ */
+class PackedCell extends Cell {
+    private final GridStorage storage;
+
+    PackedCell(GridStorage storage, int row, int column) {
+        super(row, column, null);
+        this.storage = storage;
+    }
+
+    private Cell cellAt(int row, int column) {
+        if (row < 0 || column < 0 || row >= storage.rows() || column >= storage.columns()) {
+            return null;
+        }
+        return new PackedCell(storage, row, column);
+    }
+
+    private int index() {
+        return getRow() * storage.columns() + getColumn();
+    }
+
+    @Override
+    public Cell getNorth() {
+        return cellAt(getRow() - 1, getColumn());
+    }
+
+    @Override
+    public Cell getSouth() {
+        return cellAt(getRow() + 1, getColumn());
+    }
+
+    @Override
+    public Cell getEast() {
+        return cellAt(getRow(), getColumn() + 1);
+    }
+
+    @Override
+    public Cell getWest() {
+        return cellAt(getRow(), getColumn() - 1);
+    }
+
+    @Override
+    public Set<Cell> getLinks() {
+        Set<Cell> links = new HashSet<>();
+        for (Cell neighbour : neighbours()) {
+            if (isLinked(neighbour)) {
+                links.add(neighbour);
+            }
+        }
+        return links;
+    }
+
+    @Override
+    public void setNorth(Cell north) {
+        throw new UnsupportedOperationException("Neighbours of packed cells are fixed");
+    }
+
+    @Override
+    public void setSouth(Cell south) {
+        throw new UnsupportedOperationException("Neighbours of packed cells are fixed");
+    }
+
+    @Override
+    public void setEast(Cell east) {
+        throw new UnsupportedOperationException("Neighbours of packed cells are fixed");
+    }
+
+    @Override
+    public void setWest(Cell west) {
+        throw new UnsupportedOperationException("Neighbours of packed cells are fixed");
+    }
+
+    @Override
+    public void link(Cell cell, boolean bidir) {
+        setLinked(cell, true);
+    }
+
+    @Override
+    public void unlink(Cell cell, boolean bidir) {
+        setLinked(cell, false);
+    }
+
+    private void setLinked(Cell cell, boolean linked) {
+        int dr = cell.getRow() - getRow();
+        int dc = cell.getColumn() - getColumn();
+        int cols = storage.columns();
+
+        if (dr == 0 && dc == 1) {
+            storage.setLinkedEast(index(), linked);
+        } else if (dr == 0 && dc == -1) {
+            storage.setLinkedEast(index() - 1, linked);
+        } else if (dr == 1 && dc == 0) {
+            storage.setLinkedSouth(index(), linked);
+        } else if (dr == -1 && dc == 0) {
+            storage.setLinkedSouth(index() - cols, linked);
+        } else {
+            throw new IllegalArgumentException("Packed cells can only be linked to adjacent cells");
+        }
+    }
+
+    @Override
+    public boolean isLinked(Cell cell) {
+        if (cell == null) {
+            return false;
+        }
+
+        int dr = cell.getRow() - getRow();
+        int dc = cell.getColumn() - getColumn();
+
+        if (dr == 0 && dc == 1) {
+            return storage.isLinkedEast(index());
+        } else if (dr == 0 && dc == -1) {
+            return storage.isLinkedEast(index() - 1);
+        } else if (dr == 1 && dc == 0) {
+            return storage.isLinkedSouth(index());
+        } else if (dr == -1 && dc == 0) {
+            return storage.isLinkedSouth(index() - storage.columns());
+        }
+        return false;
+    }
+
+    @Override
+    public List<Cell> neighbours() {
+        ArrayList<Cell> neighbours = new ArrayList<>();
+        Cell north = getNorth();
+        Cell south = getSouth();
+        Cell west = getWest();
+        Cell east = getEast();
+        if (north != null) { neighbours.add(north); }
+        if (south != null) { neighbours.add(south); }
+        if (west != null) { neighbours.add(west); }
+        if (east != null) { neighbours.add(east); }
+        return neighbours;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PackedCell other)) {
+            return false;
+        }
+        return storage == other.storage && getRow() == other.getRow() && getColumn() == other.getColumn();
+    }
+
+    @Override
+    public int hashCode() {
+        return index();
+    }
+}
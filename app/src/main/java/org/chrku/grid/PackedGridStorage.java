@@ -0,0 +1,82 @@
+package org.chrku.grid;
+
+import java.util.Arrays;
+
+/**
+ * Storage packing the passages into two bits per cell (east and south), i.e.
+ * 32 cells per long. {@link Cell} objects are created on demand as views into the bits.
+ */
+public class PackedGridStorage implements GridStorage {
+    private static final int EAST = 0;
+    private static final int SOUTH = 1;
+
+    private final int numRows;
+    private final int numColumns;
+
+    private final long[] bits;
+
+    public PackedGridStorage(int numRows, int numColumns) {
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        this.bits = new long[(int) ((2L * numRows * numColumns + 63) >>> 6)];
+    }
+
+    @Override
+    public int rows() {
+        return numRows;
+    }
+
+    @Override
+    public int columns() {
+        return numColumns;
+    }
+
+    @Override
+    public Cell getCell(int row, int column) {
+        return new PackedCell(this, row, column);
+    }
+
+    private boolean get(int index, int direction) {
+        long bit = 2L * index + direction;
+        return (bits[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    private void set(int index, int direction, boolean value) {
+        long bit = 2L * index + direction;
+        if (value) {
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        } else {
+            bits[(int) (bit >>> 6)] &= ~(1L << bit);
+        }
+    }
+
+    @Override
+    public boolean isLinkedEast(int index) {
+        return get(index, EAST);
+    }
+
+    @Override
+    public boolean isLinkedSouth(int index) {
+        return get(index, SOUTH);
+    }
+
+    @Override
+    public void setLinkedEast(int index, boolean linked) {
+        set(index, EAST, linked);
+    }
+
+    @Override
+    public void setLinkedSouth(int index, boolean linked) {
+        set(index, SOUTH, linked);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(bits, 0);
+    }
+
+    @Override
+    public long getWord(int word) {
+        return bits[word];
+    }
+}
@@ -0,0 +1,140 @@
+package org.chrku.io;
+
+import org.chrku.grid.DrawUtils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+
+// Draws a maze image one cell row at a time into a band of cellSize + lineWidth scanlines.
+// It issues the same rectangles as Grid.drawBorders, shifted into the band and clipped,
+// so the concatenated bands are identical to the full image.
+public class BandRenderer {
+    private final int columns;
+    private final int cellSize;
+    private final int lineWidth;
+    private final int totalCellSize;
+    private final int width;
+
+    private final BufferedImage band;
+    private final WritableRaster raster;
+
+    public BandRenderer(int columns, int cellSize, int lineWidth) {
+        this.columns = columns;
+        this.cellSize = cellSize;
+        this.lineWidth = lineWidth;
+        this.totalCellSize = cellSize + lineWidth;
+        this.width = columns * totalCellSize + lineWidth;
+        this.band = new BufferedImage(width, totalCellSize, BufferedImage.TYPE_INT_RGB);
+        this.raster = band.getRaster();
+    }
+
+    public static int imageWidth(int columns, int cellSize, int lineWidth) {
+        return columns * (cellSize + lineWidth) + lineWidth;
+    }
+
+    public static int imageHeight(int rows, int cellSize, int lineWidth) {
+        return rows * (cellSize + lineWidth) + lineWidth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int bandHeight() {
+        return totalCellSize;
+    }
+
+    public int bottomHeight() {
+        return lineWidth;
+    }
+
+    // Renders cell row `row`: without colours on a white background, otherwise every
+    // cell filled with its colour. The previous row's passages are null for the first row.
+    public void renderRow(int row, boolean[] previousEast, boolean[] previousSouth,
+                          boolean[] east, CellColors colors) {
+        if (colors == null) {
+            fill(Color.WHITE);
+        } else {
+            fill(Color.BLACK);
+            for (int col = 0; col < columns; ++col) {
+                fillCell(col, colors.get(row, col));
+            }
+        }
+        drawBorders(previousEast, previousSouth, east);
+    }
+
+    // Renders the bottomHeight() scanlines below the last row
+    public void renderBottom(boolean[] lastEast, CellColors colors) {
+        fill(colors == null ? Color.WHITE : Color.BLACK);
+        drawBottomBorder(lastEast);
+    }
+
+    public void fill(Color color) {
+        DrawUtils.fillRect(raster, 0, 0, width, raster.getHeight(), color);
+    }
+
+    public void fillCell(int column, Color color) {
+        DrawUtils.fillRect(raster, column * totalCellSize, 0, totalCellSize, totalCellSize, color);
+    }
+
+    // Walls of a row whose band starts at y = 0. previousEast is the east passages of the
+    // row above (null for the first row), north[c] whether cell c is linked to the north.
+    public void drawBorders(boolean[] previousEast, boolean[] north, boolean[] east) {
+        for (int x = 0; x < columns; ++x) {
+            if (previousEast != null && (x == 0 || !previousEast[x - 1])) {
+                // West wall of the cell above, reaching into this band
+                drawWestWall(x, -totalCellSize);
+            }
+            if (north == null || !north[x]) {
+                DrawUtils.fillRect(raster,
+                        x * totalCellSize, 0,
+                        cellSize + 2 * lineWidth, lineWidth,
+                        Color.BLACK);
+            }
+            if (x == 0 || !east[x - 1]) {
+                drawWestWall(x, 0);
+            }
+            if (!east[x]) {
+                DrawUtils.fillRect(raster,
+                        x * totalCellSize + totalCellSize, 0,
+                        lineWidth, totalCellSize,
+                        Color.BLACK);
+            }
+        }
+    }
+
+    // The lineWidth scanlines below the last row: its south walls and the ends of its west walls
+    public void drawBottomBorder(boolean[] lastEast) {
+        for (int x = 0; x < columns; ++x) {
+            if (x == 0 || !lastEast[x - 1]) {
+                drawWestWall(x, -totalCellSize);
+            }
+            DrawUtils.fillRect(raster,
+                    x * totalCellSize, 0,
+                    cellSize + 2 * lineWidth, lineWidth,
+                    Color.BLACK);
+        }
+    }
+
+    private void drawWestWall(int x, int y) {
+        DrawUtils.fillRect(raster,
+                x * totalCellSize, y,
+                lineWidth, cellSize + 2 * lineWidth,
+                Color.BLACK);
+    }
+
+    public void copyTo(int[] target, int offset, int lines) {
+        int[] pixels = ((DataBufferInt) raster.getDataBuffer()).getData();
+        System.arraycopy(pixels, 0, target, offset, lines * width);
+    }
+
+    public void writeTo(PngEncoder encoder, int lines) throws IOException {
+        int[] pixels = ((DataBufferInt) raster.getDataBuffer()).getData();
+        for (int i = 0; i < lines; ++i) {
+            encoder.writeRow(pixels, i * width);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.chrku.io;
+
+import java.awt.*;
+
+// Fill colour of every cell when rendering images
+public interface CellColors {
+    Color get(int row, int column);
+}
@@ -0,0 +1,18 @@
+package org.chrku.io;
+
+import java.util.zip.Deflater;
+
+// threads: rendering and compression threads, compressionLevel: 0-9 or -1 for the deflate
+// default, indexed: write a palette image when the maze uses at most 256 colours
+public record ImageOptions(int threads, int compressionLevel, boolean indexed) {
+    public static final ImageOptions DEFAULT = new ImageOptions(1, Deflater.DEFAULT_COMPRESSION, false);
+
+    public ImageOptions {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        if (compressionLevel < -1 || compressionLevel > 9) {
+            throw new IllegalArgumentException("compressionLevel must be between -1 and 9");
+        }
+    }
+}
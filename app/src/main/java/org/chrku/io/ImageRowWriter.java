@@ -0,0 +1,63 @@
+package org.chrku.io;
+
+import org.chrku.algorithms.RowSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+// Renders rows into a PNG one band at a time, keeping only the previous row and one
+// band of pixels in memory. Grid.writeImage goes through this as well.
+public class ImageRowWriter implements RowSink, Closeable {
+    private final int rows;
+    private final CellColors colors;
+    private final BandRenderer renderer;
+    private final PngEncoder encoder;
+
+    private final boolean[] previousEast;
+    private final boolean[] previousSouth;
+
+    public ImageRowWriter(WritableByteChannel channel, int rows, int columns,
+                          int cellSize, int lineWidth) throws IOException {
+        this(channel, rows, columns, cellSize, lineWidth, null);
+    }
+
+    // Without colours the background is white, otherwise every cell is filled first
+    public ImageRowWriter(WritableByteChannel channel, int rows, int columns,
+                          int cellSize, int lineWidth, CellColors colors) throws IOException {
+        this(channel, rows, columns, cellSize, lineWidth, colors, ImageOptions.DEFAULT, null);
+    }
+
+    public ImageRowWriter(WritableByteChannel channel, int rows, int columns,
+                          int cellSize, int lineWidth, CellColors colors,
+                          ImageOptions options, int[] palette) throws IOException {
+        this.rows = rows;
+        this.colors = colors;
+        this.renderer = new BandRenderer(columns, cellSize, lineWidth);
+        this.encoder = new PngEncoder(channel,
+                BandRenderer.imageWidth(columns, cellSize, lineWidth),
+                BandRenderer.imageHeight(rows, cellSize, lineWidth),
+                options, palette);
+        this.previousEast = new boolean[columns];
+        this.previousSouth = new boolean[columns];
+    }
+
+    @Override
+    public void acceptRow(int row, boolean[] east, boolean[] south) throws IOException {
+        renderer.renderRow(row, row == 0 ? null : previousEast, row == 0 ? null : previousSouth, east, colors);
+        renderer.writeTo(encoder, renderer.bandHeight());
+
+        System.arraycopy(east, 0, previousEast, 0, east.length);
+        System.arraycopy(south, 0, previousSouth, 0, south.length);
+
+        if (row + 1 == rows) {
+            renderer.renderBottom(previousEast, colors);
+            renderer.writeTo(encoder, renderer.bottomHeight());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        encoder.close();
+    }
+}
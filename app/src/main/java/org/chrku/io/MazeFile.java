@@ -0,0 +1,216 @@
+package org.chrku.io;
+
+import org.chrku.grid.Grid;
+import org.chrku.grid.GridStorage;
+import org.chrku.grid.MappedGridStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary maze file, all numbers little endian:
+//    0  "MAZE", int version
+//    8  int rows, int columns
+//   16  long seed
+//   24  int flags (seed present, distances present)
+//   28  int cell id the distances are measured from, -1 without distances
+//   32  algorithm name, US-ASCII padded with zeros to 32 bytes
+//   64  passages, two bits per cell in whole longs, laid out like PackedGridStorage
+//       distances, one int per cell and -1 for unreachable cells (optional)
+// Reading maps the file instead of parsing it, so loading takes the same time for any maze size
+// and the passages are only paged in when they are used.
+public final class MazeFile {
+    public static final int HEADER_BYTES = 64;
+
+    private static final int MAGIC = 0x455A414D;
+    private static final int VERSION = 1;
+    private static final int ALGORITHM_BYTES = 32;
+    private static final int FLAG_SEED = 1;
+    private static final int FLAG_DISTANCES = 2;
+
+    // Distances of huge mazes do not fit into one mapping, so they are mapped in segments
+    private static final int SEGMENT_SHIFT = 28;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Grid grid;
+    private final Long seed;
+    private final String algorithm;
+    private final int distanceOrigin;
+    private final IntBuffer[] distances;
+
+    private MazeFile(Grid grid, Long seed, String algorithm, int distanceOrigin, IntBuffer[] distances) {
+        this.grid = grid;
+        this.seed = seed;
+        this.algorithm = algorithm;
+        this.distanceOrigin = distanceOrigin;
+        this.distances = distances;
+    }
+
+    // The grid reads its passages from the mapping and cannot be modified
+    public Grid grid() {
+        return grid;
+    }
+
+    // null if the maze was saved without a seed
+    public Long seed() {
+        return seed;
+    }
+
+    // null if the maze was saved without an algorithm name
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public boolean hasDistances() {
+        return distances != null;
+    }
+
+    public int distanceOrigin() {
+        return distanceOrigin;
+    }
+
+    public int distance(int index) {
+        return distances[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+    }
+
+    public static void write(Path path, Grid grid, Long seed, String algorithm) throws IOException {
+        write(path, grid, seed, algorithm, null, -1);
+    }
+
+    // distances is indexed by cell id (see Grid.index) and may be null
+    public static void write(Path path, Grid grid, Long seed, String algorithm,
+                             int[] distances, int distanceOrigin) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, grid, seed, algorithm, distances, distanceOrigin);
+        }
+    }
+
+    // Writes the maze to the channel and leaves it open
+    public static void write(WritableByteChannel channel, Grid grid, Long seed, String algorithm,
+                             int[] distances, int distanceOrigin) throws IOException {
+        byte[] name = algorithm == null ? new byte[0] : algorithm.getBytes(StandardCharsets.US_ASCII);
+        if (name.length > ALGORITHM_BYTES) {
+            throw new IllegalArgumentException("Algorithm name longer than " + ALGORITHM_BYTES + " bytes");
+        }
+        if (distances != null && distances.length != grid.size()) {
+            throw new IllegalArgumentException("Expected one distance per cell");
+        }
+
+        int flags = (seed != null ? FLAG_SEED : 0) | (distances != null ? FLAG_DISTANCES : 0);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(VERSION)
+                .putInt(grid.rows()).putInt(grid.columns())
+                .putLong(seed != null ? seed : 0)
+                .putInt(flags).putInt(distances != null ? distanceOrigin : -1)
+                .put(name).put(new byte[ALGORITHM_BYTES - name.length]);
+
+        GridStorage storage = grid.getStorage();
+        int words = words(grid.size());
+        for (int word = 0; word < words; ++word) {
+            if (buffer.remaining() < Long.BYTES) {
+                flush(channel, buffer);
+            }
+            buffer.putLong(storage.getWord(word));
+        }
+
+        if (distances != null) {
+            for (int distance : distances) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putInt(distance);
+            }
+        }
+        flush(channel, buffer);
+    }
+
+    public static MazeFile read(Path path) throws IOException {
+        // Mappings stay valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(path + " is not a maze file");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                channel.read(header, header.position());
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a maze file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported maze file version " + version);
+            }
+
+            int rows = header.getInt();
+            int columns = header.getInt();
+            long seed = header.getLong();
+            int flags = header.getInt();
+            int distanceOrigin = header.getInt();
+            byte[] name = new byte[ALGORITHM_BYTES];
+            header.get(name);
+
+            long size = (long) rows * columns;
+            if (rows < 0 || columns < 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid maze size " + rows + "x" + columns);
+            }
+            long wallBytes = (long) words((int) size) * Long.BYTES;
+            long distanceBytes = (flags & FLAG_DISTANCES) != 0 ? size * Integer.BYTES : 0;
+            if (channel.size() < HEADER_BYTES + wallBytes + distanceBytes) {
+                throw new IOException(path + " is truncated");
+            }
+
+            MappedGridStorage storage = new MappedGridStorage(rows, columns,
+                    channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, wallBytes)
+                            .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+
+            IntBuffer[] distances = null;
+            if (distanceBytes > 0) {
+                int segments = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+                distances = new IntBuffer[segments];
+                for (int i = 0; i < segments; ++i) {
+                    long first = (long) i << SEGMENT_SHIFT;
+                    long count = Math.min(1L << SEGMENT_SHIFT, size - first);
+                    distances[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                    HEADER_BYTES + wallBytes + first * Integer.BYTES, count * Integer.BYTES)
+                            .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                }
+            }
+
+            int nameLength = 0;
+            while (nameLength < name.length && name[nameLength] != 0) {
+                ++nameLength;
+            }
+
+            return new MazeFile(new Grid(storage),
+                    (flags & FLAG_SEED) != 0 ? seed : null,
+                    nameLength > 0 ? new String(name, 0, nameLength, StandardCharsets.US_ASCII) : null,
+                    distances != null ? distanceOrigin : -1,
+                    distances);
+        }
+    }
+
+    private static int words(int cells) {
+        return (int) ((2L * cells + 63) >>> 6);
+    }
+
+    private static void flush(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,105 @@
+package org.chrku.io;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Renders the image in horizontal stripes of whole cell rows on a thread pool and
+// hands the finished stripes to the PNG encoder in order. At most two stripes per
+// thread are in flight, so memory stays bounded by the image width.
+public class ParallelImageWriter {
+    // Pixels per stripe the stripe height is chosen for
+    private static final int STRIPE_PIXELS = 1 << 22;
+
+    private final int rows;
+    private final int columns;
+    private final int cellSize;
+    private final int lineWidth;
+    private final ImageOptions options;
+
+    public ParallelImageWriter(int rows, int columns, int cellSize, int lineWidth, ImageOptions options) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cellSize = cellSize;
+        this.lineWidth = lineWidth;
+        this.options = options;
+    }
+
+    // The encoder compresses in parallel as well, see PngEncoder
+    public void write(WritableByteChannel channel, RowSource source,
+                      CellColors colors, int[] palette) throws IOException {
+        int threads = options.threads();
+        int width = BandRenderer.imageWidth(columns, cellSize, lineWidth);
+        int height = BandRenderer.imageHeight(rows, cellSize, lineWidth);
+        int stripeRows = Math.max(1, STRIPE_PIXELS / (width * (cellSize + lineWidth)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (PngEncoder encoder = new PngEncoder(channel, width, height, options, palette)) {
+            Deque<Future<int[]>> pending = new ArrayDeque<>();
+            int nextRow = 0;
+
+            while (nextRow < rows || !pending.isEmpty()) {
+                while (nextRow < rows && pending.size() < 2 * threads) {
+                    int from = nextRow;
+                    int to = Math.min(rows, from + stripeRows);
+                    pending.add(pool.submit(() -> renderStripe(source, colors, from, to)));
+                    nextRow = to;
+                }
+
+                int[] stripe = pending.poll().get();
+                for (int offset = 0; offset < stripe.length; offset += width) {
+                    encoder.writeRow(stripe, offset);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Rendering failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Pixels of cell rows [from, to), plus the bottom border for the last stripe
+    private int[] renderStripe(RowSource source, CellColors colors, int from, int to) {
+        BandRenderer renderer = new BandRenderer(columns, cellSize, lineWidth);
+        int bandPixels = renderer.width() * renderer.bandHeight();
+        int lines = (to - from) * renderer.bandHeight() + (to == rows ? renderer.bottomHeight() : 0);
+        int[] stripe = new int[lines * renderer.width()];
+
+        boolean[] previousEast = new boolean[columns];
+        boolean[] previousSouth = new boolean[columns];
+        boolean[] east = new boolean[columns];
+        boolean[] south = new boolean[columns];
+
+        if (from > 0) {
+            source.readRow(from - 1, previousEast, previousSouth);
+        }
+
+        for (int row = from; row < to; ++row) {
+            source.readRow(row, east, south);
+            renderer.renderRow(row, row == 0 ? null : previousEast, row == 0 ? null : previousSouth, east, colors);
+            renderer.copyTo(stripe, (row - from) * bandPixels, renderer.bandHeight());
+
+            boolean[] tmp = previousEast;
+            previousEast = east;
+            east = tmp;
+            tmp = previousSouth;
+            previousSouth = south;
+            south = tmp;
+        }
+
+        if (to == rows) {
+            renderer.renderBottom(previousEast, colors);
+            renderer.copyTo(stripe, (to - from) * bandPixels, renderer.bottomHeight());
+        }
+
+        return stripe;
+    }
+}
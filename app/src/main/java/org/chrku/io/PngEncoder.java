@@ -0,0 +1,411 @@
+package org.chrku.io;
+
+import org.chrku.metrics.Metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Incremental PNG writer for RGB or palette images. Scanlines are filtered and deflated
+// as they arrive and written out as IDAT chunks.
+//
+// With more than one thread the filtered scanlines are cut into blocks that are deflated
+// concurrently, pigz style: every block is primed with the last 32K of the previous one
+// as dictionary and ends with a sync flush, so the raw deflate outputs can simply be
+// concatenated between a zlib header and the Adler-32 of the whole data.
+public class PngEncoder implements Closeable {
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int BLOCK_SIZE = 1 << 19;
+    private static final int DICTIONARY_SIZE = 1 << 15;
+
+    private static final byte FILTER_NONE = 0;
+    private static final byte FILTER_SUB = 1;
+    private static final byte FILTER_UP = 2;
+
+    private final WritableByteChannel channel;
+    private final int width;
+    private final int height;
+    private final int compressionLevel;
+
+    private final int[] palette;
+    private final int[] sortedPalette;
+    private final int[] sortedIndices;
+    private final int bitDepth;
+    private final int bytesPerPixel;
+    private int lastColor = -1;
+    private int lastIndex;
+
+    private byte[] previous;
+    private byte[] current;
+    private final byte[] sub;
+    private final byte[] up;
+
+    // Sequential compression
+    private final Deflater deflater;
+    private final byte[] deflated;
+
+    // Parallel compression
+    private final ExecutorService pool;
+    private final int maxPending;
+    private final Deque<Future<byte[]>> pending;
+    private final Adler32 adler;
+    private byte[] block;
+    private int blockLength;
+    private byte[] previousBlock;
+
+    private int rowsWritten;
+    private boolean closed;
+
+    public PngEncoder(WritableByteChannel channel, int width, int height) throws IOException {
+        this(channel, width, height, ImageOptions.DEFAULT, null);
+    }
+
+    // palette: 0xRRGGBB colours of a palette image (at most 256), null for RGB
+    public PngEncoder(WritableByteChannel channel, int width, int height,
+                      ImageOptions options, int[] palette) throws IOException {
+        if (palette != null && (palette.length == 0 || palette.length > 256)) {
+            throw new IllegalArgumentException("A palette needs between 1 and 256 colours");
+        }
+
+        this.channel = channel;
+        this.width = width;
+        this.height = height;
+        this.compressionLevel = options.compressionLevel();
+
+        this.palette = palette;
+        if (palette == null) {
+            this.sortedPalette = null;
+            this.sortedIndices = null;
+            this.bitDepth = 8;
+            this.bytesPerPixel = 3;
+        } else {
+            this.sortedPalette = palette.clone();
+            Arrays.sort(sortedPalette);
+            this.sortedIndices = new int[palette.length];
+            for (int i = 0; i < palette.length; ++i) {
+                sortedIndices[Arrays.binarySearch(sortedPalette, palette[i])] = i;
+            }
+            this.bitDepth = palette.length <= 2 ? 1 : palette.length <= 4 ? 2 : palette.length <= 16 ? 4 : 8;
+            this.bytesPerPixel = 1;
+        }
+
+        int stride = palette == null ? 3 * width : (int) (((long) width * bitDepth + 7) / 8);
+        this.previous = new byte[stride];
+        this.current = new byte[stride];
+        this.sub = new byte[stride + 1];
+        this.up = new byte[stride + 1];
+
+        if (options.threads() > 1) {
+            this.deflater = null;
+            this.deflated = null;
+            this.pool = Executors.newFixedThreadPool(options.threads());
+            this.maxPending = 2 * options.threads();
+            this.pending = new ArrayDeque<>();
+            this.adler = new Adler32();
+            this.block = new byte[BLOCK_SIZE];
+        } else {
+            this.deflater = new Deflater(compressionLevel);
+            this.deflated = new byte[CHUNK_SIZE];
+            this.pool = null;
+            this.maxPending = 0;
+            this.pending = null;
+            this.adler = null;
+        }
+
+        writeHeader();
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    private void writeHeader() throws IOException {
+        writeFully(ByteBuffer.wrap(SIGNATURE));
+
+        ByteBuffer header = ByteBuffer.allocate(13);
+        header.putInt(width);
+        header.putInt(height);
+        header.put((byte) bitDepth);
+        header.put((byte) (palette == null ? 2 : 3));  // colour type RGB or palette
+        header.put((byte) 0);  // compression
+        header.put((byte) 0);  // filter method
+        header.put((byte) 0);  // no interlace
+        writeChunk("IHDR", header.array(), header.position());
+
+        if (palette != null) {
+            byte[] entries = new byte[3 * palette.length];
+            for (int i = 0; i < palette.length; ++i) {
+                entries[3 * i] = (byte) (palette[i] >>> 16);
+                entries[3 * i + 1] = (byte) (palette[i] >>> 8);
+                entries[3 * i + 2] = (byte) palette[i];
+            }
+            writeChunk("PLTE", entries, entries.length);
+        }
+
+        if (pool != null) {
+            writeChunk("IDAT", zlibHeader(), 2);
+        }
+    }
+
+    private byte[] zlibHeader() {
+        // CMF: deflate with 32K window, FLG: compression level hint with check bits
+        int level = compressionLevel == Deflater.DEFAULT_COMPRESSION ? 6 : compressionLevel;
+        int flags = level < 2 ? 0x01 : level < 6 ? 0x5E : level == 6 ? 0x9C : 0xDA;
+        return new byte[]{0x78, (byte) flags};
+    }
+
+    // Writes one scanline of 0xRRGGBB pixels starting at offset
+    public void writeRow(int[] pixels, int offset) throws IOException {
+        if (rowsWritten >= height) {
+            throw new IllegalStateException("All " + height + " rows have already been written");
+        }
+
+        if (palette == null) {
+            for (int i = 0; i < width; ++i) {
+                int pixel = pixels[offset + i];
+                current[3 * i] = (byte) (pixel >>> 16);
+                current[3 * i + 1] = (byte) (pixel >>> 8);
+                current[3 * i + 2] = (byte) pixel;
+            }
+        } else {
+            packIndices(pixels, offset);
+        }
+
+        byte[] filtered = filter();
+        if (pool == null) {
+            deflater.setInput(filtered);
+            while (!deflater.needsInput()) {
+                drain(Deflater.NO_FLUSH);
+            }
+        } else {
+            addToBlocks(filtered);
+        }
+
+        byte[] tmp = previous;
+        previous = current;
+        current = tmp;
+        ++rowsWritten;
+    }
+
+    private void packIndices(int[] pixels, int offset) {
+        int pixelsPerByte = 8 / bitDepth;
+        int value = 0;
+        int count = 0;
+        int out = 0;
+
+        for (int i = 0; i < width; ++i) {
+            value = (value << bitDepth) | paletteIndex(pixels[offset + i] & 0xFFFFFF);
+            if (++count == pixelsPerByte) {
+                current[out++] = (byte) value;
+                value = 0;
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            current[out] = (byte) (value << (bitDepth * (pixelsPerByte - count)));
+        }
+    }
+
+    private int paletteIndex(int color) {
+        // Mazes are mostly long runs of one colour
+        if (color != lastColor) {
+            int position = Arrays.binarySearch(sortedPalette, color);
+            if (position < 0) {
+                throw new IllegalArgumentException(String.format("Colour %06x is not in the palette", color));
+            }
+            lastColor = color;
+            lastIndex = sortedIndices[position];
+        }
+        return lastIndex;
+    }
+
+    // Picks the filter with the smallest sum of absolute values, the usual PNG heuristic
+    private byte[] filter() {
+        int stride = current.length;
+        long noneSum = 0;
+        long subSum = 0;
+        long upSum = 0;
+
+        sub[0] = FILTER_SUB;
+        up[0] = FILTER_UP;
+        for (int i = 0; i < stride; ++i) {
+            byte value = current[i];
+            byte subValue = (byte) (value - (i >= bytesPerPixel ? current[i - bytesPerPixel] : 0));
+            byte upValue = (byte) (value - previous[i]);
+            sub[i + 1] = subValue;
+            up[i + 1] = upValue;
+
+            noneSum += Math.abs(value);
+            subSum += Math.abs(subValue);
+            upSum += Math.abs(upValue);
+        }
+
+        if (upSum <= subSum && upSum <= noneSum) {
+            return up;
+        }
+        if (subSum <= noneSum) {
+            return sub;
+        }
+
+        // Reuse the sub buffer for the unfiltered line
+        sub[0] = FILTER_NONE;
+        System.arraycopy(current, 0, sub, 1, stride);
+        return sub;
+    }
+
+    private void drain(int flush) throws IOException {
+        int length = deflater.deflate(deflated, 0, deflated.length, flush);
+        if (length > 0) {
+            writeChunk("IDAT", deflated, length);
+        }
+    }
+
+    private void addToBlocks(byte[] filtered) throws IOException {
+        adler.update(filtered);
+
+        int position = 0;
+        while (position < filtered.length) {
+            int length = Math.min(filtered.length - position, block.length - blockLength);
+            System.arraycopy(filtered, position, block, blockLength, length);
+            blockLength += length;
+            position += length;
+
+            if (blockLength == block.length) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        byte[] data = block;
+        int length = blockLength;
+        byte[] dictionary = previousBlock;
+        int level = compressionLevel;
+
+        if (pending.size() >= maxPending) {
+            writeBlock(pending.poll());
+        }
+        pending.add(pool.submit(() -> deflateBlock(data, length, dictionary, level, last)));
+
+        previousBlock = data;
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+    }
+
+    // Blocks before the last one are always full, so the dictionary is the end of the array
+    private static byte[] deflateBlock(byte[] data, int length, byte[] dictionary, int level, boolean last) {
+        Deflater blockDeflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                blockDeflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            blockDeflater.setInput(data, 0, length);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length / 4 + 64);
+            byte[] buffer = new byte[CHUNK_SIZE];
+            if (last) {
+                blockDeflater.finish();
+                while (!blockDeflater.finished()) {
+                    int written = blockDeflater.deflate(buffer);
+                    out.write(buffer, 0, written);
+                }
+            } else {
+                int written;
+                do {
+                    written = blockDeflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, written);
+                } while (written == buffer.length);
+            }
+            return out.toByteArray();
+        } finally {
+            blockDeflater.end();
+        }
+    }
+
+    private void writeBlock(Future<byte[]> future) throws IOException {
+        try {
+            byte[] compressed = future.get();
+            writeChunk("IDAT", compressed, compressed.length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Compression failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (rowsWritten != height) {
+                throw new IllegalStateException("Expected " + height + " rows, got " + rowsWritten);
+            }
+
+            if (pool == null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drain(Deflater.NO_FLUSH);
+                }
+            } else {
+                submitBlock(true);
+                while (!pending.isEmpty()) {
+                    writeBlock(pending.poll());
+                }
+                byte[] checksum = ByteBuffer.allocate(4).putInt((int) adler.getValue()).array();
+                writeChunk("IDAT", checksum, checksum.length);
+            }
+            writeChunk("IEND", new byte[0], 0);
+            Metrics.add(Metrics.Counter.PIXELS_WRITTEN, (long) width * height);
+        } finally {
+            if (pool == null) {
+                deflater.end();
+            } else {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        ByteBuffer chunk = ByteBuffer.allocate(length + 12);
+        chunk.putInt(length);
+        chunk.put(typeBytes);
+        chunk.put(data, 0, length);
+        chunk.putInt((int) crc.getValue());
+        chunk.flip();
+        writeFully(chunk);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
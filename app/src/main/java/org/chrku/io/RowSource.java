@@ -0,0 +1,6 @@
+package org.chrku.io;
+
+// Random access to the passages of a maze row, see RowSink for the meaning of the arrays
+public interface RowSource {
+    void readRow(int row, boolean[] east, boolean[] south);
+}
@@ -0,0 +1,56 @@
+package org.chrku.io;
+
+import org.chrku.algorithms.RowSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+// Writes streamed rows in the same format as Grid.toString
+public class TextRowWriter implements RowSink, Closeable {
+    private final Writer writer;
+    private final char[] top;
+    private final char[] bottom;
+
+    public TextRowWriter(Writer writer, int columns) {
+        this.writer = writer;
+        this.top = new char[4 * columns + 2];
+        this.bottom = new char[4 * columns + 2];
+    }
+
+    @Override
+    public void acceptRow(int row, boolean[] east, boolean[] south) throws IOException {
+        int columns = east.length;
+
+        if (row == 0) {
+            writer.write("+");
+            writer.write("---+".repeat(columns));
+            writer.write("\n");
+        }
+
+        top[0] = '|';
+        bottom[0] = '+';
+        for (int col = 0; col < columns; ++col) {
+            int offset = 4 * col + 1;
+            char wall = south[col] ? ' ' : '-';
+            top[offset] = ' ';
+            top[offset + 1] = ' ';
+            top[offset + 2] = ' ';
+            top[offset + 3] = east[col] ? ' ' : '|';
+            bottom[offset] = wall;
+            bottom[offset + 1] = wall;
+            bottom[offset + 2] = wall;
+            bottom[offset + 3] = '+';
+        }
+        top[4 * columns + 1] = '\n';
+        bottom[4 * columns + 1] = '\n';
+
+        writer.write(top);
+        writer.write(bottom);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
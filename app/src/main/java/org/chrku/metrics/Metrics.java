@@ -0,0 +1,215 @@
+package org.chrku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Recording;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process wide counters and phase timings. Everything is off until enable is called: a
+// disabled counter update is one volatile read and a disabled phase is a shared object, so
+// the calls can stay in place under load. Hot loops count in a local variable and add it
+// once when they finish instead of updating the counter per step.
+//
+// The values are exported as JSON, or as JFR events that any recording of this process
+// picks up: one event per phase with its duration, and the counter totals at the end of
+// every recording chunk once registerCounterEvent was called.
+public final class Metrics {
+    public enum Counter {
+        // Passages carved by the generators
+        CELLS_CARVED,
+        // Steps of the random walks of Aldous-Broder and Wilson
+        WALK_STEPS,
+        // Cells added to the queues of the solvers and analytics
+        QUEUE_PUSHES,
+        // Pixels of the encoded images
+        PIXELS_WRITTEN
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+    private static final LongAdder[] VALUES = new LongAdder[COUNTERS.length];
+    private static final Map<String, PhaseTotals> PHASES = new ConcurrentHashMap<>();
+    private static final Phase DISABLED = new Phase(null);
+
+    private static volatile boolean enabled;
+    private static boolean counterEventRegistered;
+
+    static {
+        for (int i = 0; i < VALUES.length; ++i) {
+            VALUES[i] = new LongAdder();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static void reset() {
+        for (LongAdder value : VALUES) {
+            value.reset();
+        }
+        PHASES.clear();
+    }
+
+    public static void add(Counter counter, long amount) {
+        if (enabled) {
+            VALUES[counter.ordinal()].add(amount);
+        }
+    }
+
+    public static long get(Counter counter) {
+        return VALUES[counter.ordinal()].sum();
+    }
+
+    // Times the code until the returned phase is closed, close it in a finally block
+    public static Phase phase(String name) {
+        return enabled ? new Phase(name) : DISABLED;
+    }
+
+    // Makes recordings emit the counters, which initializes the flight recorder
+    public static synchronized void registerCounterEvent() {
+        if (!counterEventRegistered) {
+            FlightRecorder.addPeriodicEvent(CounterEvent.class, Metrics::commitCounters);
+            counterEventRegistered = true;
+        }
+    }
+
+    // Starts a recording of the phase and counter events only, which the caller stops, dumps
+    // and closes
+    public static Recording startRecording() {
+        registerCounterEvent();
+
+        Recording recording = new Recording();
+        recording.setName("mazes");
+        recording.enable(PhaseEvent.class);
+        recording.enable(CounterEvent.class).with("period", "endChunk");
+        recording.start();
+        return recording;
+    }
+
+    private static void commitCounters() {
+        for (Counter counter : COUNTERS) {
+            CounterEvent event = new CounterEvent();
+            if (event.shouldCommit()) {
+                event.counter = name(counter);
+                event.value = get(counter);
+                event.commit();
+            }
+        }
+    }
+
+    // {"phases":{"<name>":{"count":..,"millis":..},..},"counters":{"<name>":..,..}}
+    public static String toJson() {
+        StringBuilder json = new StringBuilder("{\"phases\":{");
+
+        boolean first = true;
+        for (Map.Entry<String, PhaseTotals> entry : new TreeMap<>(PHASES).entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            PhaseTotals totals = entry.getValue();
+            json.append('"').append(entry.getKey()).append("\":{\"count\":").append(totals.count.sum())
+                    .append(",\"millis\":")
+                    .append(String.format(Locale.ROOT, "%.3f", totals.nanos.sum() / 1e6))
+                    .append('}');
+        }
+
+        json.append("},\"counters\":{");
+        for (int i = 0; i < COUNTERS.length; ++i) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(name(COUNTERS[i])).append("\":").append(get(COUNTERS[i]));
+        }
+
+        return json.append("}}").toString();
+    }
+
+    private static String name(Counter counter) {
+        return counter.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class PhaseTotals {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+
+    public static final class Phase implements AutoCloseable {
+        private final String name;
+        private final long start;
+        private final PhaseEvent event;
+
+        private Phase(String name) {
+            this.name = name;
+            if (name == null) {
+                this.start = 0;
+                this.event = null;
+            } else {
+                this.event = new PhaseEvent();
+                this.event.begin();
+                this.start = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (name == null) {
+                return;
+            }
+
+            long nanos = System.nanoTime() - start;
+            PhaseTotals totals = PHASES.computeIfAbsent(name, key -> new PhaseTotals());
+            totals.count.increment();
+            totals.nanos.add(nanos);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.commit();
+            }
+        }
+    }
+
+    @Name("org.chrku.Phase")
+    @Label("Maze Phase")
+    @Category("Mazes")
+    @Description("One phase of generating and writing a maze")
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("org.chrku.Counter")
+    @Label("Maze Counter")
+    @Category("Mazes")
+    @Description("Total of a maze counter since the metrics were last reset")
+    @Period("endChunk")
+    static final class CounterEvent extends Event {
+        @Label("Counter")
+        String counter;
+
+        @Label("Value")
+        long value;
+    }
+}
@@ -0,0 +1,142 @@
+package org.chrku.solvers;
+
+import org.chrku.grid.Grid;
+import org.chrku.metrics.Metrics;
+
+import java.util.Arrays;
+
+// A* with the Manhattan distance, which never overestimates when every passage has length 1,
+// so the first time the end is taken from the queue its path is a shortest one. The queue is
+// a binary heap of longs holding the estimate in the upper and the cell id in the lower half.
+// As in BidirectionalBfsSolver, cells are stamped with the search number instead of clearing arrays.
+public class AStarSolver implements PathFinder {
+    private final Grid grid;
+
+    private final int[] seen;
+    private final int[] closed;
+    private final int[] costs;
+    private final int[] parents;
+    private final int[] links = new int[4];
+
+    private long[] heap = new long[1024];
+    private int heapSize;
+
+    private int search;
+    private int visited;
+    private int pushes;
+
+    public AStarSolver(Grid grid) {
+        this.grid = grid;
+        this.seen = new int[grid.size()];
+        this.closed = new int[grid.size()];
+        this.costs = new int[grid.size()];
+        this.parents = new int[grid.size()];
+    }
+
+    @Override
+    public int visitedCells() {
+        return visited;
+    }
+
+    @Override
+    public int[] findPath(int start, int end) {
+        if (search == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            search = 0;
+        }
+        ++search;
+        visited = 0;
+        pushes = 0;
+        heapSize = 0;
+
+        int endRow = grid.rowOf(end);
+        int endColumn = grid.columnOf(end);
+
+        seen[start] = search;
+        costs[start] = 0;
+        parents[start] = -1;
+        push(estimate(start, endRow, endColumn), start);
+
+        while (heapSize > 0) {
+            int current = (int) pop();
+            if (closed[current] == search) {
+                continue;
+            }
+            closed[current] = search;
+            ++visited;
+
+            if (current == end) {
+                int[] path = new int[costs[end] + 1];
+                int index = path.length - 1;
+                for (int cell = end; cell != -1; cell = parents[cell]) {
+                    path[index--] = cell;
+                }
+                Metrics.add(Metrics.Counter.QUEUE_PUSHES, pushes);
+                return path;
+            }
+
+            int cost = costs[current] + 1;
+            int count = grid.links(current, links);
+            for (int i = 0; i < count; ++i) {
+                int neighbour = links[i];
+                if (closed[neighbour] != search && (seen[neighbour] != search || cost < costs[neighbour])) {
+                    seen[neighbour] = search;
+                    costs[neighbour] = cost;
+                    parents[neighbour] = current;
+                    push(cost + estimate(neighbour, endRow, endColumn), neighbour);
+                }
+            }
+        }
+
+        Metrics.add(Metrics.Counter.QUEUE_PUSHES, pushes);
+        return new int[0];
+    }
+
+    private int estimate(int cell, int endRow, int endColumn) {
+        return Math.abs(grid.rowOf(cell) - endRow) + Math.abs(grid.columnOf(cell) - endColumn);
+    }
+
+    private void push(long priority, int cell) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+
+        long entry = (priority << 32) | cell;
+        int index = heapSize++;
+        ++pushes;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                ++child;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = last;
+
+        return top & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,117 @@
+package org.chrku.solvers;
+
+import org.chrku.grid.Cell;
+import org.chrku.grid.Grid;
+import org.chrku.metrics.Metrics;
+
+import java.util.*;
+
+// Every passage has length 1, so a breadth-first search yields the same distances as
+// Dijkstra without a priority queue. All state lives in int arrays indexed by cell id, which
+// every solve starts over on, so one solver can be solved again after the grid changed.
+public class BfsSolver implements Solver {
+    private final int[] distances;
+    private final int[] predecessors;
+    private final int[] queue;
+
+    private final Grid grid;
+
+    private final int startRow;
+    private final int startColumn;
+
+    public BfsSolver(Grid grid, int startRow, int startColumn) {
+        this.grid = grid;
+        this.startRow = startRow;
+        this.startColumn = startColumn;
+
+        this.distances = new int[grid.size()];
+        this.predecessors = new int[grid.size()];
+        this.queue = new int[grid.size()];
+    }
+
+    // Distance per cell id, -1 for unreachable cells
+    public int[] getDistanceArray() {
+        return distances;
+    }
+
+    public int getDistance(int row, int column) {
+        return distances[grid.index(row, column)];
+    }
+
+    @Override
+    public List<List<Double>> getDistances() {
+        List<List<Double>> result = new ArrayList<>(grid.rows());
+
+        for (int i = 0; i < grid.rows(); ++i) {
+            List<Double> row = new ArrayList<>(grid.columns());
+            for (int j = 0; j < grid.columns(); ++j) {
+                int distance = distances[grid.index(i, j)];
+                row.add(distance == -1 ? Double.POSITIVE_INFINITY : distance);
+            }
+            result.add(row);
+        }
+
+        return result;
+    }
+
+    // Cell ids from the end cell back to the start cell, empty if the end is unreachable
+    public int[] getPathIndicesTo(int endRow, int endColumn) {
+        int current = grid.index(endRow, endColumn);
+        if (distances[current] == -1) {
+            return new int[0];
+        }
+
+        int[] path = new int[distances[current] + 1];
+        for (int i = 0; current != -1; ++i) {
+            path[i] = current;
+            current = predecessors[current];
+        }
+
+        return path;
+    }
+
+    @Override
+    public Set<Cell> getPathTo(int endRow, int endColumn) {
+        int[] indices = getPathIndicesTo(endRow, endColumn);
+        if (indices.length == 0) {
+            return Collections.emptySet();
+        }
+
+        Set<Cell> path = new HashSet<>();
+        for (int index : indices) {
+            path.add(grid.getCell(grid.rowOf(index), grid.columnOf(index)));
+        }
+
+        return path;
+    }
+
+    @Override
+    public void solve() {
+        Arrays.fill(distances, -1);
+        Arrays.fill(predecessors, -1);
+
+        int[] links = new int[4];
+        int head = 0;
+        int tail = 0;
+
+        int start = grid.index(startRow, startColumn);
+        distances[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int current = queue[head++];
+            int cost = distances[current] + 1;
+
+            int count = grid.links(current, links);
+            for (int i = 0; i < count; ++i) {
+                int neighbour = links[i];
+                if (distances[neighbour] == -1) {
+                    distances[neighbour] = cost;
+                    predecessors[neighbour] = current;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        Metrics.add(Metrics.Counter.QUEUE_PUSHES, tail);
+    }
+}
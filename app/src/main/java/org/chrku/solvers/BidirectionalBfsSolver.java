@@ -0,0 +1,129 @@
+package org.chrku.solvers;
+
+import org.chrku.grid.Grid;
+import org.chrku.metrics.Metrics;
+
+import java.util.Arrays;
+
+// Breadth-first searches from both ends, always extending the smaller frontier by one level,
+// until they meet. Cells are marked with the number of the search (positive from the start,
+// negative from the end) instead of clearing arrays, so a query only touches the cells it visits.
+public class BidirectionalBfsSolver implements PathFinder {
+    private final Grid grid;
+
+    private final int[] marks;
+    private final int[] distances;
+    private final int[] parents;
+    // The forward queue grows from the front, the backward queue from the back. Every cell is
+    // queued at most once, so they never overlap.
+    private final int[] queue;
+    private final int[] links = new int[4];
+
+    private int search;
+    private int visited;
+
+    public BidirectionalBfsSolver(Grid grid) {
+        this.grid = grid;
+        this.marks = new int[grid.size()];
+        this.distances = new int[grid.size()];
+        this.parents = new int[grid.size()];
+        this.queue = new int[grid.size()];
+    }
+
+    @Override
+    public int visitedCells() {
+        return visited;
+    }
+
+    @Override
+    public int[] findPath(int start, int end) {
+        if (search == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            search = 0;
+        }
+        ++search;
+        visited = 0;
+
+        if (start == end) {
+            visited = 1;
+            return new int[]{start};
+        }
+
+        visit(start, search, 0, -1);
+        visit(end, -search, 0, -1);
+
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = queue.length - 1;
+        int backwardTail = queue.length - 2;
+        queue[0] = start;
+        queue[queue.length - 1] = end;
+
+        while (forwardHead < forwardTail && backwardHead > backwardTail) {
+            boolean forward = forwardTail - forwardHead <= backwardHead - backwardTail;
+            int mark = forward ? search : -search;
+
+            // Finish the whole level and keep the shortest connection found in it
+            int bestLength = Integer.MAX_VALUE;
+            int bestNear = -1;
+            int bestFar = -1;
+
+            int levelEnd = forward ? forwardTail : backwardTail;
+            while (forward ? forwardHead < levelEnd : backwardHead > levelEnd) {
+                int current = forward ? queue[forwardHead++] : queue[backwardHead--];
+
+                int count = grid.links(current, links);
+                for (int i = 0; i < count; ++i) {
+                    int neighbour = links[i];
+                    if (marks[neighbour] == -mark) {
+                        int length = distances[current] + 1 + distances[neighbour];
+                        if (length < bestLength) {
+                            bestLength = length;
+                            bestNear = current;
+                            bestFar = neighbour;
+                        }
+                    } else if (marks[neighbour] != mark) {
+                        visit(neighbour, mark, distances[current] + 1, current);
+                        if (forward) {
+                            queue[forwardTail++] = neighbour;
+                        } else {
+                            queue[backwardTail--] = neighbour;
+                        }
+                    }
+                }
+            }
+
+            if (bestNear != -1) {
+                Metrics.add(Metrics.Counter.QUEUE_PUSHES, visited);
+                return forward ? join(bestNear, bestFar, bestLength) : join(bestFar, bestNear, bestLength);
+            }
+        }
+
+        Metrics.add(Metrics.Counter.QUEUE_PUSHES, visited);
+        return new int[0];
+    }
+
+    private void visit(int cell, int mark, int distance, int parent) {
+        marks[cell] = mark;
+        distances[cell] = distance;
+        parents[cell] = parent;
+        ++visited;
+    }
+
+    // Path from the start through the passage between fromStart and fromEnd to the end
+    private int[] join(int fromStart, int fromEnd, int length) {
+        int[] path = new int[length + 1];
+
+        int index = distances[fromStart];
+        for (int cell = fromStart; cell != -1; cell = parents[cell]) {
+            path[index--] = cell;
+        }
+
+        index = distances[fromStart] + 1;
+        for (int cell = fromEnd; cell != -1; cell = parents[cell]) {
+            path[index++] = cell;
+        }
+
+        return path;
+    }
+}
@@ -2,10 +2,11 @@ package org.chrku.solvers;
 
 import org.chrku.grid.Cell;
 import org.chrku.grid.Grid;
+import org.chrku.metrics.Metrics;
 
 import java.util.*;
 
-public class DijkstraSolver {
+public class DijkstraSolver implements Solver {
     private final List<List<Double>> distances;
     private final List<List<DijkstraNode>> nodes;
 
@@ -34,10 +35,12 @@ public class DijkstraSolver {
         distances.get(startRow).set(startColumn, 0.0);
     }
 
+    @Override
     public List<List<Double>> getDistances() {
         return distances;
     }
 
+    @Override
     public Set<Cell> getPathTo(int endRow, int endColumn) {
         DijkstraNode endNode = nodes.get(endRow).get(endColumn);
         if (endNode == null) {
@@ -55,6 +58,7 @@ public class DijkstraSolver {
         return path;
     }
 
+    @Override
     public void solve() {
         PriorityQueue<DijkstraNode> queue = new PriorityQueue<>();
         Set<Cell> visited = new HashSet<>();
@@ -62,6 +66,7 @@ public class DijkstraSolver {
         Cell initialCell = grid.getCell(startRow, startColumn);
         var startNode = new DijkstraNode(initialCell, 0.0, null);
         queue.add(startNode);
+        long pushes = 1;
         nodes.get(startRow).set(startColumn, startNode);
 
         while (!queue.isEmpty()) {
@@ -76,12 +81,14 @@ public class DijkstraSolver {
                         distances.get(neighbour.getRow()).set(neighbour.getColumn(), cost);
                         nodes.get(neighbour.getRow()).set(neighbour.getColumn(), newNode);
                         queue.add(newNode);
+                        ++pushes;
                     }
                 }
 
                 visited.add(currentCell);
             }
         }
+        Metrics.add(Metrics.Counter.QUEUE_PUSHES, pushes);
     }
 
     private record DijkstraNode(Cell cell, double cost, DijkstraNode predecessor) implements Comparable<DijkstraNode> {
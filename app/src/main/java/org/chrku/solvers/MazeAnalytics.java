@@ -0,0 +1,249 @@
+package org.chrku.solvers;
+
+import org.chrku.grid.Grid;
+import org.chrku.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Distance and shape statistics of a maze, computed with breadth-first searches on int arrays
+// indexed by cell id. Every thread keeps one set of work arrays and reuses it for all the
+// searches it runs, so analysing many sources does not allocate per source.
+public class MazeAnalytics {
+    // Endpoints and length of the longest shortest path
+    public record Diameter(int from, int to, int length) {
+    }
+
+    // Number of cells by number of passages
+    public record Branching(int isolated, int deadEnds, int corridors, int forks, int crossroads) {
+        public int junctions() {
+            return forks + crossroads;
+        }
+    }
+
+    // Statistics of the distances from one source to all cells it reaches
+    public record SourceStats(int source, int eccentricity, long totalDistance, int reached) {
+    }
+
+    private final Grid grid;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Workspace> workspaces;
+
+    private static final class Workspace {
+        private final int[] distances;
+        private final int[] queue;
+        private final int[] links = new int[4];
+
+        private Workspace(int size) {
+            this.distances = new int[size];
+            this.queue = new int[size];
+        }
+    }
+
+    public MazeAnalytics(Grid grid) {
+        this(grid, null);
+    }
+
+    // Searches for multiple sources run in the given pool, or on the calling thread if it is null.
+    // The pool stays with the caller, who shuts it down, so its threads keep their work arrays
+    // from call to call.
+    public MazeAnalytics(Grid grid, ForkJoinPool pool) {
+        this.grid = grid;
+        this.pool = pool;
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(grid.size()));
+    }
+
+    // Breadth-first search starting from all sources at distance 0. Afterwards the queue holds
+    // the reached cells in order of distance, so the last one is a farthest cell.
+    // Returns the number of reached cells.
+    private int search(Workspace workspace, int... sources) {
+        int[] distances = workspace.distances;
+        int[] queue = workspace.queue;
+        int[] links = workspace.links;
+        Arrays.fill(distances, -1);
+
+        int tail = 0;
+        for (int source : sources) {
+            if (distances[source] == -1) {
+                distances[source] = 0;
+                queue[tail++] = source;
+            }
+        }
+
+        for (int head = 0; head < tail; ++head) {
+            int current = queue[head];
+            int cost = distances[current] + 1;
+
+            int count = grid.links(current, links);
+            for (int i = 0; i < count; ++i) {
+                int neighbour = links[i];
+                if (distances[neighbour] == -1) {
+                    distances[neighbour] = cost;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+
+        Metrics.add(Metrics.Counter.QUEUE_PUSHES, tail);
+        return tail;
+    }
+
+    // Distance per cell id to the nearest source, -1 for unreachable cells
+    public int[] distancesFrom(int... sources) {
+        Workspace workspace = workspaces.get();
+        search(workspace, sources);
+        return workspace.distances.clone();
+    }
+
+    // Cell ids of a shortest path from one cell to another, empty if there is none
+    public int[] pathBetween(int from, int to) {
+        Workspace workspace = workspaces.get();
+        search(workspace, from);
+
+        int[] distances = workspace.distances;
+        if (distances[to] == -1) {
+            return new int[0];
+        }
+
+        int[] path = new int[distances[to] + 1];
+        int current = to;
+        for (int i = path.length - 1; i > 0; --i) {
+            path[i] = current;
+            int count = grid.links(current, workspace.links);
+            for (int j = 0; j < count; ++j) {
+                if (distances[workspace.links[j]] == i - 1) {
+                    current = workspace.links[j];
+                    break;
+                }
+            }
+        }
+        path[0] = from;
+
+        return path;
+    }
+
+    // The farthest cell from any cell is one end of a longest path in a tree, the farthest cell
+    // from that end is the other one. Exact for perfect mazes; with loops or unreachable cells
+    // the length is a lower bound.
+    public Diameter diameter() {
+        if (grid.size() == 0) {
+            return new Diameter(-1, -1, 0);
+        }
+
+        Workspace workspace = workspaces.get();
+        int from = workspace.queue[search(workspace, 0) - 1];
+        int to = workspace.queue[search(workspace, from) - 1];
+
+        return new Diameter(from, to, workspace.distances[to]);
+    }
+
+    // Runs one search per source, spread over the threads of the pool
+    public SourceStats[] sourceStats(int... sources) {
+        SourceStats[] result = new SourceStats[sources.length];
+
+        if (pool == null) {
+            for (int i = 0; i < sources.length; ++i) {
+                result[i] = sourceStats(sources[i]);
+            }
+            return result;
+        }
+
+        pool.submit(() -> IntStream.range(0, sources.length).parallel()
+                .forEach(i -> result[i] = sourceStats(sources[i])))
+                .join();
+        return result;
+    }
+
+    private SourceStats sourceStats(int source) {
+        Workspace workspace = workspaces.get();
+        int reached = search(workspace, source);
+
+        long total = 0;
+        for (int i = 0; i < reached; ++i) {
+            total += workspace.distances[workspace.queue[i]];
+        }
+
+        int farthest = workspace.queue[reached - 1];
+        return new SourceStats(source, workspace.distances[farthest], total, reached);
+    }
+
+    // Average distance over all pairs of distinct cells. In a perfect maze every passage lies on
+    // the paths between the s cells on one side and the n - s cells on the other, so the sum of
+    // all distances is the sum of s * (n - s) over the passages, found with one search.
+    // Otherwise every cell is searched from, which is quadratic.
+    public double averageDistance() {
+        int size = grid.size();
+        if (size < 2) {
+            return 0;
+        }
+
+        long total = 0;
+        long pairs = 0;
+
+        if (isPerfect()) {
+            Workspace workspace = workspaces.get();
+            search(workspace, 0);
+
+            // Subtree sizes, accumulated from the farthest cells towards the source
+            int[] subtree = new int[size];
+            for (int i = size - 1; i > 0; --i) {
+                int current = workspace.queue[i];
+                subtree[current] += 1;
+                total += (long) subtree[current] * (size - subtree[current]);
+
+                int count = grid.links(current, workspace.links);
+                for (int j = 0; j < count; ++j) {
+                    int neighbour = workspace.links[j];
+                    if (workspace.distances[neighbour] == workspace.distances[current] - 1) {
+                        subtree[neighbour] += subtree[current];
+                        break;
+                    }
+                }
+            }
+            pairs = (long) size * (size - 1) / 2;
+        } else {
+            int[] sources = IntStream.range(0, size).toArray();
+            for (SourceStats stats : sourceStats(sources)) {
+                total += stats.totalDistance();
+                pairs += stats.reached() - 1;
+            }
+            // Every pair was counted from both ends
+            total /= 2;
+            pairs /= 2;
+        }
+
+        return pairs == 0 ? 0 : (double) total / pairs;
+    }
+
+    public Branching branching() {
+        int[] counts = new int[5];
+        int[] links = new int[4];
+        for (int i = 0; i < grid.size(); ++i) {
+            ++counts[grid.links(i, links)];
+        }
+
+        return new Branching(counts[0], counts[1], counts[2], counts[3], counts[4]);
+    }
+
+    public int deadEnds() {
+        return branching().deadEnds();
+    }
+
+    // A maze is perfect if there is exactly one path between every two cells,
+    // i.e. it is connected and has one passage less than cells
+    public boolean isPerfect() {
+        int size = grid.size();
+        if (size == 0) {
+            return true;
+        }
+
+        long passages = 0;
+        int[] links = new int[4];
+        for (int i = 0; i < size; ++i) {
+            passages += grid.links(i, links);
+        }
+
+        return passages / 2 == size - 1 && search(workspaces.get(), 0) == size;
+    }
+}
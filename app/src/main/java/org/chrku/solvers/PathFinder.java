@@ -0,0 +1,10 @@
+package org.chrku.solvers;
+
+// Finds a shortest path between two cells without computing the distances to all cells
+public interface PathFinder {
+    // Cell ids from start to end in path order, empty if the end is unreachable
+    int[] findPath(int start, int end);
+
+    // Number of cells the last search expanded
+    int visitedCells();
+}
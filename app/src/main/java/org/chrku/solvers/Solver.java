@@ -0,0 +1,14 @@
+package org.chrku.solvers;
+
+import org.chrku.grid.Cell;
+
+import java.util.List;
+import java.util.Set;
+
+public interface Solver {
+    void solve();
+
+    List<List<Double>> getDistances();
+
+    Set<Cell> getPathTo(int endRow, int endColumn);
+}
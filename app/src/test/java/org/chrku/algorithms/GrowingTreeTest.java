@@ -0,0 +1,100 @@
+package org.chrku.algorithms;
+
+import org.chrku.grid.Grid;
+import org.chrku.grid.PackedGridStorage;
+import org.chrku.solvers.MazeAnalytics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GrowingTreeTest {
+    private static final int[][] SIZES = {{1, 1}, {1, 9}, {9, 1}, {13, 17}, {64, 70}};
+
+    @Test
+    void mixedWithProbabilityOneMatchesNewest() {
+        for (int[] size : SIZES) {
+            for (long seed = 0; seed < 5; ++seed) {
+                assertSameMaze(generate(new GrowingTree(GrowingTree.Selection.NEWEST), size, seed),
+                        generate(new GrowingTree(GrowingTree.Selection.mixed(1.0)), size, seed));
+            }
+        }
+    }
+
+    // Alternates between the middle and the newest cell, so the newest is only found again
+    // after middle cells were dropped if the order of the active cells is kept
+    @Test
+    void keepsInsertionOrderWhenDroppingMiddleCells() {
+        GrowingTree.Selection alternating = (count, rng) -> count % 2 == 0 ? count / 2 : count - 1;
+        for (int[] size : SIZES) {
+            for (long seed = 0; seed < 5; ++seed) {
+                Grid grid = generate(new GrowingTree(alternating), size, seed);
+                assertTrue(new MazeAnalytics(grid).isPerfect());
+
+                Grid expected = new Grid(new PackedGridStorage(size[0], size[1]));
+                generateWithList(expected, alternating, Seeds.generator(seed));
+                assertSameMaze(expected, grid);
+            }
+        }
+    }
+
+    @Test
+    void everySelectionGivesPerfectMaze() {
+        GrowingTree.Selection[] selections = {GrowingTree.Selection.NEWEST, GrowingTree.Selection.RANDOM,
+                GrowingTree.Selection.OLDEST, GrowingTree.Selection.mixed(0.5)};
+        for (GrowingTree.Selection selection : selections) {
+            for (int[] size : SIZES) {
+                assertTrue(new MazeAnalytics(generate(new GrowingTree(selection), size, 3)).isPerfect());
+            }
+        }
+    }
+
+    private static Grid generate(MazeGenerator generator, int[] size, long seed) {
+        Grid grid = new Grid(new PackedGridStorage(size[0], size[1]));
+        generator.generateIndexed(grid, seed);
+        return grid;
+    }
+
+    // The growing tree with a list, drawing the same random numbers as GrowingTree
+    private static void generateWithList(Grid grid, GrowingTree.Selection selection, RandomGenerator rng) {
+        boolean[] visited = new boolean[grid.size()];
+        int[] neighbours = new int[4];
+        List<Integer> active = new ArrayList<>();
+
+        int start = grid.getRandomIndex(rng);
+        visited[start] = true;
+        active.add(start);
+        while (!active.isEmpty()) {
+            int index = selection.select(active.size(), rng);
+            int current = active.get(index);
+
+            int count = grid.neighbours(current, neighbours);
+            int unvisitedCount = 0;
+            for (int i = 0; i < count; ++i) {
+                if (!visited[neighbours[i]]) {
+                    neighbours[unvisitedCount++] = neighbours[i];
+                }
+            }
+
+            if (unvisitedCount == 0) {
+                active.remove(index);
+            } else {
+                int neighbour = neighbours[rng.nextInt(unvisitedCount)];
+                grid.link(current, neighbour);
+                visited[neighbour] = true;
+                active.add(neighbour);
+            }
+        }
+    }
+
+    private static void assertSameMaze(Grid expected, Grid actual) {
+        int words = (int) ((2L * expected.size() + 63) >>> 6);
+        for (int word = 0; word < words; ++word) {
+            assertEquals(expected.getStorage().getWord(word), actual.getStorage().getWord(word), "word " + word);
+        }
+    }
+}
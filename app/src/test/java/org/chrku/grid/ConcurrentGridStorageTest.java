@@ -0,0 +1,104 @@
+package org.chrku.grid;
+
+import org.chrku.algorithms.ParallelTiledGenerator;
+import org.chrku.algorithms.RecursiveBacktracker;
+import org.chrku.algorithms.Wilson;
+import org.chrku.solvers.MazeAnalytics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Stress test: every run writes one grid from several threads that start together, and every
+// run is checked against the same maze written by one thread, so a lost update fails the test
+class ConcurrentGridStorageTest {
+    private static final int THREADS = 4;
+    private static final int SIZE = 128;
+    private static final int RUNS = 50;
+
+    // Not a divisor of the 32 cells per word, so neighbouring tiles share words
+    private static final int TILE_SIZE = 5;
+
+    private static ExecutorService pool;
+    private static Grid reference;
+
+    @BeforeAll
+    static void setUp() {
+        pool = Executors.newFixedThreadPool(THREADS);
+        reference = new Grid(new PackedGridStorage(SIZE, SIZE));
+        new Wilson().generateIndexed(reference, 1L);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @RepeatedTest(RUNS)
+    void parallelTilesGiveSameMaze(RepetitionInfo repetition) {
+        long seed = repetition.getCurrentRepetition();
+        Grid expected = new Grid(new PackedGridStorage(SIZE, SIZE));
+        new ParallelTiledGenerator(RecursiveBacktracker::new, 1, TILE_SIZE).generateIndexed(expected, seed);
+
+        Grid grid = new Grid(new ConcurrentGridStorage(SIZE, SIZE));
+        new ParallelTiledGenerator(RecursiveBacktracker::new, THREADS, TILE_SIZE).generateIndexed(grid, seed);
+
+        assertTrue(new MazeAnalytics(grid).isPerfect());
+        assertSameWords(expected.getStorage(), grid.getStorage(), grid.size());
+    }
+
+    @RepeatedTest(RUNS)
+    void interleavedCopyKeepsEveryPassage() throws Exception {
+        ConcurrentGridStorage storage = new ConcurrentGridStorage(SIZE, SIZE);
+        GridStorage source = reference.getStorage();
+        int cells = reference.size();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Neighbouring cells share a word but are written by different threads
+        List<Callable<Void>> copies = new ArrayList<>(THREADS);
+        for (int thread = 0; thread < THREADS; ++thread) {
+            int first = thread;
+            copies.add(() -> {
+                start.await();
+                for (int i = first; i < cells; i += THREADS) {
+                    if (source.isLinkedEast(i)) {
+                        storage.setLinkedEast(i, true);
+                    }
+                    if (source.isLinkedSouth(i)) {
+                        storage.setLinkedSouth(i, true);
+                    }
+                }
+                return null;
+            });
+        }
+        List<Future<Void>> futures = new ArrayList<>(THREADS);
+        for (Callable<Void> copy : copies) {
+            futures.add(pool.submit(copy));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+
+        assertTrue(new MazeAnalytics(new Grid(storage)).isPerfect());
+        assertSameWords(source, storage, cells);
+    }
+
+    private static void assertSameWords(GridStorage expected, GridStorage actual, int cells) {
+        int words = (2 * cells + 63) >>> 6;
+        for (int word = 0; word < words; ++word) {
+            assertEquals(expected.getWord(word), actual.getWord(word), "word " + word);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.chrku.solvers;
+
+import org.chrku.algorithms.Wilson;
+import org.chrku.grid.Grid;
+import org.chrku.grid.PackedGridStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class BfsSolverTest {
+    @Test
+    void solvingAgainMatchesNewSolver() {
+        Grid grid = new Grid(new PackedGridStorage(20, 30));
+        new Wilson().generateIndexed(grid, 4L);
+        BfsSolver solver = new BfsSolver(grid, 3, 5);
+        solver.solve();
+
+        // Same maze again, and a different one in the same storage
+        for (long seed : new long[]{4L, 5L}) {
+            grid.getStorage().clear();
+            new Wilson().generateIndexed(grid, seed);
+            solver.solve();
+
+            BfsSolver expected = new BfsSolver(grid, 3, 5);
+            expected.solve();
+            assertArrayEquals(expected.getDistanceArray(), solver.getDistanceArray());
+            assertArrayEquals(expected.getPathIndicesTo(19, 29), solver.getPathIndicesTo(19, 29));
+        }
+    }
+}
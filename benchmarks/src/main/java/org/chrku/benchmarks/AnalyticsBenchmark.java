@@ -0,0 +1,88 @@
+package org.chrku.benchmarks;
+
+import org.chrku.grid.Grid;
+import org.chrku.solvers.DijkstraSolver;
+import org.chrku.solvers.MazeAnalytics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AnalyticsBenchmark {
+    private static final int SOURCES = 16;
+
+    @Param({"packed"})
+    public String storage;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Grid grid;
+    private ForkJoinPool pool;
+    private MazeAnalytics analytics;
+    private int[] sources;
+
+    @Setup
+    public void setUp() {
+        grid = Fixtures.maze(storage, size);
+        pool = threads == 1 ? null : new ForkJoinPool(threads);
+        analytics = new MazeAnalytics(grid, pool);
+        sources = new int[SOURCES];
+        for (int i = 0; i < SOURCES; ++i) {
+            sources[i] = (int) ((long) i * grid.size() / SOURCES);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public MazeAnalytics.Diameter diameter() {
+        return analytics.diameter();
+    }
+
+    @Benchmark
+    public MazeAnalytics.SourceStats[] sourceStats() {
+        return analytics.sourceStats(sources);
+    }
+
+    // What ranking start points cost before: one Dijkstra per source
+    @Benchmark
+    public double dijkstraPerSource() {
+        double farthest = 0;
+        for (int source : sources) {
+            DijkstraSolver solver = new DijkstraSolver(grid, grid.rowOf(source), grid.columnOf(source));
+            solver.solve();
+            for (List<Double> row : solver.getDistances()) {
+                for (double distance : row) {
+                    farthest = Math.max(farthest, distance);
+                }
+            }
+        }
+        return farthest;
+    }
+
+    @Benchmark
+    public double averageDistance() {
+        return analytics.averageDistance();
+    }
+
+    @Benchmark
+    public MazeAnalytics.Branching branching() {
+        return analytics.branching();
+    }
+}
@@ -0,0 +1,29 @@
+package org.chrku.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the benchmarks like the stock JMH main, but always attaches the GC profiler
+// so allocation rates are reported alongside throughput and latency percentiles.
+public class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String... args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine);
+
+        if (commandLine.getProfilers().stream().noneMatch(p -> p.getKlass().equals("gc")
+                || p.getKlass().equals(GCProfiler.class.getName()))) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package org.chrku.benchmarks;
+
+import org.chrku.grid.ConcurrentGridStorage;
+import org.chrku.grid.Grid;
+import org.chrku.grid.GridStorage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Benchmark of ConcurrentGridStorage under contention: the threads copy every threads-th cell of a
+// reference maze, so neighbouring cells of one word are written by different threads. The last
+// copy of every iteration is compared with the reference; the stress test is
+// ConcurrentGridStorageTest.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ConcurrentGridBenchmark {
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private ExecutorService pool;
+    private Grid reference;
+
+    private ConcurrentGridStorage copied;
+
+    @Setup
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(threads);
+        reference = Fixtures.maze("packed", size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        if (copied != null) {
+            GridStorage expected = reference.getStorage();
+            int words = (int) ((2L * reference.size() + 63) >>> 6);
+            for (int word = 0; word < words; ++word) {
+                if (copied.getWord(word) != expected.getWord(word)) {
+                    throw new IllegalStateException("Lost passages in word " + word);
+                }
+            }
+        }
+        copied = null;
+    }
+
+    @Benchmark
+    public ConcurrentGridStorage copyInterleaved() throws InterruptedException, ExecutionException {
+        ConcurrentGridStorage storage = new ConcurrentGridStorage(size, size);
+        GridStorage source = reference.getStorage();
+        int cells = reference.size();
+
+        List<Callable<Void>> copies = new ArrayList<>(threads);
+        for (int thread = 0; thread < threads; ++thread) {
+            int first = thread;
+            copies.add(() -> {
+                for (int i = first; i < cells; i += threads) {
+                    if (source.isLinkedEast(i)) {
+                        storage.setLinkedEast(i, true);
+                    }
+                    if (source.isLinkedSouth(i)) {
+                        storage.setLinkedSouth(i, true);
+                    }
+                }
+                return null;
+            });
+        }
+        for (Future<Void> copy : pool.invokeAll(copies)) {
+            copy.get();
+        }
+
+        copied = storage;
+        return storage;
+    }
+}
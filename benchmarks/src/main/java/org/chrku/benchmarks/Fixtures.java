@@ -0,0 +1,55 @@
+package org.chrku.benchmarks;
+
+import org.chrku.algorithms.*;
+import org.chrku.grid.*;
+
+import java.awt.*;
+
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static MazeGenerator generator(String algorithm) {
+        return switch (algorithm) {
+            case "binary_tree" -> new BinaryTree();
+            case "sidewinder" -> new Sidewinder();
+            case "aldous_broder" -> new AldousBroder();
+            case "aldous_broder_wilson" -> AldousBroder.hybrid();
+            case "wilson" -> new Wilson();
+            case "hunt_and_kill" -> new HuntAndKill();
+            case "recursive_backtracker" -> new RecursiveBacktracker();
+            case "eller" -> new Eller();
+            case "kruskal" -> new Kruskal();
+            case "kruskal_tiled" -> Kruskal.parallel();
+            case "growing_tree_newest" -> new GrowingTree(GrowingTree.Selection.NEWEST);
+            case "growing_tree_random" -> new GrowingTree(GrowingTree.Selection.RANDOM);
+            case "growing_tree_oldest" -> new GrowingTree(GrowingTree.Selection.OLDEST);
+            case "growing_tree_mixed" -> new GrowingTree(GrowingTree.Selection.mixed(0.5));
+            case "prim" -> new Prim();
+            default -> throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        };
+    }
+
+    static GridStorage storage(String storage, int rows, int columns) {
+        return switch (storage) {
+            case "object" -> new ObjectGridStorage(rows, columns);
+            case "packed" -> new PackedGridStorage(rows, columns);
+            case "concurrent" -> new ConcurrentGridStorage(rows, columns);
+            default -> throw new IllegalArgumentException("Unknown storage " + storage);
+        };
+    }
+
+    // Mazes used as input for the solver and renderer benchmarks. Sidewinder scales
+    // linearly and does not recurse, so it works for every benchmarked size.
+    static Grid maze(String storage, int size) {
+        Grid grid = new Grid(storage(storage, size, size));
+        new Sidewinder().generateIndexed(grid);
+        return grid;
+    }
+
+    static LabeledGrid labeledMaze(String storage, int size) {
+        LabeledGrid grid = new LabeledGrid(storage(storage, size, size), Color.RED, Color.YELLOW);
+        new Sidewinder().generateIndexed(grid);
+        return grid;
+    }
+}
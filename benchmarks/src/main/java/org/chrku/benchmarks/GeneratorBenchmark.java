@@ -0,0 +1,47 @@
+package org.chrku.benchmarks;
+
+import org.chrku.algorithms.MazeGenerator;
+import org.chrku.grid.Grid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The grid is created inside the measured method because generation mutates it;
+// gridAllocation measures that part alone so it can be subtracted.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GeneratorBenchmark {
+    @Param({"binary_tree", "sidewinder", "aldous_broder", "aldous_broder_wilson", "wilson", "hunt_and_kill", "recursive_backtracker",
+            "eller", "kruskal", "kruskal_tiled", "growing_tree_newest", "growing_tree_random",
+            "growing_tree_oldest", "growing_tree_mixed", "prim"})
+    public String algorithm;
+
+    @Param({"object", "packed"})
+    public String storage;
+
+    @Param({"10", "100", "1000", "4000"})
+    public int size;
+
+    private MazeGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = Fixtures.generator(algorithm);
+    }
+
+    @Benchmark
+    public Grid generateIndexed() {
+        Grid grid = new Grid(Fixtures.storage(storage, size, size));
+        generator.generateIndexed(grid);
+        return grid;
+    }
+
+    @Benchmark
+    public Grid gridAllocation() {
+        return new Grid(Fixtures.storage(storage, size, size));
+    }
+}
@@ -0,0 +1,101 @@
+package org.chrku.benchmarks;
+
+import org.chrku.algorithms.MazeGenerator;
+import org.chrku.grid.Cell;
+import org.chrku.grid.Grid;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+// Wilson's algorithm as it was before the indexed rework, kept as a baseline for WilsonBenchmark.
+// Both variants are quadratic: unvisited.contains/remove and path.indexOf scan lists.
+public class LegacyWilson implements MazeGenerator {
+    @Override
+    public void generate(Grid grid, RandomGenerator rng) {
+        List<Cell> unvisited = new ArrayList<>();
+        grid.cellIterator().forEachRemaining(unvisited::add);
+
+        int index = rng.nextInt(unvisited.size());
+        unvisited.remove(index);
+
+        while (!unvisited.isEmpty()) {
+            index = rng.nextInt(unvisited.size());
+            Cell cell = unvisited.get(index);
+
+            List<Cell> path = new ArrayList<>();
+            path.add(cell);
+
+            while (unvisited.contains(cell)) {
+                cell = cell.neighbours().get(rng.nextInt(cell.neighbours().size()));
+                int position = path.indexOf(cell);
+                if (position == -1) {
+                    path.add(cell);
+                } else {
+                    path = path.subList(0, position + 1);
+                }
+            }
+
+            for (int i = 0; i < path.size() - 1; ++i) {
+                path.get(i).link(path.get(i + 1), true);
+                unvisited.remove(path.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void generateIndexed(Grid grid, RandomGenerator rng) {
+        int size = grid.size();
+        int[] unvisited = new int[size];
+        boolean[] isUnvisited = new boolean[size];
+        for (int i = 0; i < size; ++i) {
+            unvisited[i] = i;
+            isUnvisited[i] = true;
+        }
+        int unvisitedCount = size;
+
+        int index = rng.nextInt(unvisitedCount);
+        isUnvisited[unvisited[index]] = false;
+        unvisitedCount = removeAt(unvisited, unvisitedCount, index);
+
+        int[] path = new int[size];
+        int[] neighbours = new int[4];
+
+        while (unvisitedCount > 0) {
+            index = rng.nextInt(unvisitedCount);
+            int cell = unvisited[index];
+
+            int pathLength = 0;
+            path[pathLength++] = cell;
+
+            while (isUnvisited[cell]) {
+                cell = neighbours[rng.nextInt(grid.neighbours(cell, neighbours))];
+                int position = indexOf(path, pathLength, cell);
+                if (position == -1) {
+                    path[pathLength++] = cell;
+                } else {
+                    pathLength = position + 1;
+                }
+            }
+
+            for (int i = 0; i < pathLength - 1; ++i) {
+                grid.link(path[i], path[i + 1]);
+                isUnvisited[path[i]] = false;
+                unvisitedCount = removeAt(unvisited, unvisitedCount, indexOf(unvisited, unvisitedCount, path[i]));
+            }
+        }
+    }
+
+    private static int indexOf(int[] values, int length, int value) {
+        for (int i = 0; i < length; ++i) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int removeAt(int[] values, int length, int index) {
+        System.arraycopy(values, index + 1, values, index, length - index - 1);
+        return length - 1;
+    }
+}
@@ -0,0 +1,60 @@
+package org.chrku.benchmarks;
+
+import org.chrku.grid.Grid;
+import org.chrku.io.MazeFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class MazeFileBenchmark {
+    @Param({"object", "packed"})
+    public String storage;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private Grid grid;
+    private Path path;
+
+    @Setup
+    public void setUp() throws IOException {
+        grid = Fixtures.maze(storage, size);
+        path = Files.createTempFile("maze-benchmark", ".maze");
+        MazeFile.write(path, grid, 0L, "sidewinder");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        MazeFile.write(path, grid, 0L, "sidewinder");
+    }
+
+    @Benchmark
+    public MazeFile read() throws IOException {
+        return MazeFile.read(path);
+    }
+
+    // Load and touch every passage, to include paging the file in
+    @Benchmark
+    public long readAndScan() throws IOException {
+        Grid loaded = MazeFile.read(path).grid();
+        long links = 0;
+        for (int i = 0; i < loaded.size(); ++i) {
+            links += loaded.hasLinks(i) ? 1 : 0;
+        }
+        return links;
+    }
+}
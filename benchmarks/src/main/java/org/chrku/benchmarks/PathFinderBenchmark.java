@@ -0,0 +1,65 @@
+package org.chrku.benchmarks;
+
+import org.chrku.grid.Grid;
+import org.chrku.solvers.AStarSolver;
+import org.chrku.solvers.BfsSolver;
+import org.chrku.solvers.BidirectionalBfsSolver;
+import org.chrku.solvers.PathFinder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class PathFinderBenchmark {
+    @Param({"bfs", "bidirectional", "astar"})
+    public String finder;
+
+    @Param({"packed"})
+    public String storage;
+
+    @Param({"1000", "4000"})
+    public int size;
+
+    // Distance between the endpoints in rows and columns, "far" uses opposite corners
+    @Param({"10", "far"})
+    public String spread;
+
+    private Grid grid;
+    private PathFinder pathFinder;
+    private int start;
+    private int end;
+
+    @Setup
+    public void setUp() {
+        grid = Fixtures.maze(storage, size);
+        if (spread.equals("far")) {
+            start = 0;
+            end = grid.size() - 1;
+        } else {
+            int offset = Integer.parseInt(spread);
+            start = grid.index(size / 2, size / 2);
+            end = grid.index(size / 2 + offset, size / 2 + offset);
+        }
+
+        pathFinder = switch (finder) {
+            case "bidirectional" -> new BidirectionalBfsSolver(grid);
+            case "astar" -> new AStarSolver(grid);
+            default -> null;
+        };
+    }
+
+    @Benchmark
+    public int[] findPath() {
+        if (pathFinder == null) {
+            BfsSolver solver = new BfsSolver(grid, grid.rowOf(start), grid.columnOf(start));
+            solver.solve();
+            return solver.getPathIndicesTo(grid.rowOf(end), grid.columnOf(end));
+        }
+        return pathFinder.findPath(start, end);
+    }
+}
@@ -0,0 +1,73 @@
+package org.chrku.benchmarks;
+
+import org.chrku.grid.Grid;
+import org.chrku.grid.LabeledGrid;
+import org.chrku.solvers.DijkstraSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class RenderBenchmark {
+    @Param({"object", "packed"})
+    public String storage;
+
+    @Param({"10", "100", "500"})
+    public int size;
+
+    @Param({"10"})
+    public int cellSize;
+
+    @Param({"2"})
+    public int lineWidth;
+
+    private Grid grid;
+    private LabeledGrid labeledGrid;
+    private Path output;
+
+    @Setup
+    public void setUp() throws IOException {
+        grid = Fixtures.maze(storage, size);
+
+        labeledGrid = Fixtures.labeledMaze(storage, size);
+        DijkstraSolver solver = new DijkstraSolver(labeledGrid, 0, 0);
+        solver.solve();
+        labeledGrid.setLabels(solver.getDistances());
+        labeledGrid.setPath(solver.getPathTo(size - 1, size - 1));
+
+        output = Files.createTempFile("maze-benchmark", ".png");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public String gridToString() {
+        return grid.toString();
+    }
+
+    @Benchmark
+    public String labeledGridToString() {
+        return labeledGrid.toString();
+    }
+
+    @Benchmark
+    public void gridWriteImage() throws IOException {
+        grid.writeImage(output, cellSize, lineWidth);
+    }
+
+    @Benchmark
+    public void labeledGridWriteImage() throws IOException {
+        labeledGrid.writeImage(output, cellSize, lineWidth);
+    }
+}
@@ -0,0 +1,58 @@
+package org.chrku.benchmarks;
+
+import org.chrku.grid.Cell;
+import org.chrku.grid.Grid;
+import org.chrku.solvers.BfsSolver;
+import org.chrku.solvers.DijkstraSolver;
+import org.chrku.solvers.Solver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SolverBenchmark {
+    @Param({"dijkstra", "bfs"})
+    public String solver;
+
+    @Param({"object", "packed"})
+    public String storage;
+
+    @Param({"10", "100", "1000", "4000"})
+    public int size;
+
+    private Grid grid;
+    private Solver solved;
+
+    @Setup
+    public void setUp() {
+        grid = Fixtures.maze(storage, size);
+        solved = createSolver();
+        solved.solve();
+    }
+
+    private Solver createSolver() {
+        return switch (solver) {
+            case "dijkstra" -> new DijkstraSolver(grid, 0, 0);
+            case "bfs" -> new BfsSolver(grid, 0, 0);
+            default -> throw new IllegalArgumentException("Unknown solver " + solver);
+        };
+    }
+
+    @Benchmark
+    public Solver solve() {
+        Solver solver = createSolver();
+        solver.solve();
+        return solver;
+    }
+
+    @Benchmark
+    public Set<Cell> getPathTo() {
+        return solved.getPathTo(size - 1, size - 1);
+    }
+}
@@ -0,0 +1,46 @@
+package org.chrku.benchmarks;
+
+import org.chrku.algorithms.MazeGenerator;
+import org.chrku.algorithms.Wilson;
+import org.chrku.grid.Grid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Compares the list based Wilson implementation with the indexed one. The legacy
+// version is quadratic, so the sizes stay small enough for it to finish.
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WilsonBenchmark {
+    // legacy: Cell based, legacy_indexed: int ids with list scans, indexed: current Wilson
+    @Param({"legacy", "legacy_indexed", "indexed"})
+    public String implementation;
+
+    @Param({"object", "packed"})
+    public String storage;
+
+    @Param({"10", "50", "100"})
+    public int size;
+
+    private MazeGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = implementation.equals("legacy") ? new LegacyWilson() : new Wilson();
+    }
+
+    @Benchmark
+    public Grid generate() {
+        Grid grid = new Grid(Fixtures.storage(storage, size, size));
+        if (implementation.equals("legacy")) {
+            generator.generate(grid);
+        } else {
+            generator.generateIndexed(grid);
+        }
+        return grid;
+    }
+}
@@ -1,7 +0,0 @@
-package org.chrku.algorithms;
-
-import org.chrku.grid.Grid;
-
-public interface MazeGenerator {
-    void generate(Grid grid);
-}